@@ -8,22 +8,40 @@ import com.adamk33n3r.runelite.watchdog.ui.panels.PanelUtils;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.config.FlashNotification;
 
+import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import joptsimple.internal.Strings;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.function.Supplier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Stream;
 
 @Slf4j
@@ -42,6 +60,20 @@ public class AlertManager {
     @Getter
     private final List<Alert> alerts = new CopyOnWriteArrayList<>();
 
+    /**
+     * The enabled alerts indexed by trigger type. Replaced as a whole every time the alerts are saved, so
+     * event handlers can read it from any thread without walking the alert tree.
+     */
+    @Getter
+    private volatile AlertSnapshot snapshot = AlertSnapshot.EMPTY;
+    private final AtomicLong snapshotGeneration = new AtomicLong();
+    private final List<Consumer<AlertSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+
+    // Edits save a lot, like on every key typed, so the config is only written once they stop for a moment
+    private static final long SAVE_QUIET_MILLIS = 1000;
+    private static final long SAVE_MAX_DELAY_MILLIS = 5000;
+    private final WriteBehindSaver saver = new WriteBehindSaver("alerts", this::writeAlerts, SAVE_QUIET_MILLIS, SAVE_MAX_DELAY_MILLIS);
+
     // TODO: Kinda weird this is in here...
     @Getter
     @Inject
@@ -53,12 +85,24 @@ public class AlertManager {
 
     public static final Type ALERT_TYPE;
     public static final Type ALERT_LIST_TYPE;
+    private static final Type SHARD_LIST_TYPE;
 
     static {
         ALERT_TYPE = new TypeToken<Alert>() {}.getType();
         ALERT_LIST_TYPE = new TypeToken<List<Alert>>() {}.getType();
+        SHARD_LIST_TYPE = new TypeToken<List<String>>() {}.getType();
     }
 
+    // What is currently in the config, so saving only writes the shards that changed. Guarded by storedShards.
+    private final Set<String> storedShards = new HashSet<>();
+    private String storedShardIndex;
+    private boolean legacyAlertsStored = false;
+    // The profile the stored shards are in
+    private long storedProfileId;
+    // Written after the alerts it upgraded
+    @Nullable
+    private String unsavedPluginVersion;
+
     @Inject
     private void init() {
         // Add new alert types here
@@ -147,6 +191,7 @@ public class AlertManager {
         AlertGroup parent = alert.getParent();
         if (parent != null) {
             parent.getAlerts().remove(alert);
+            alert.setParent(null);
         } else {
             this.alerts.remove(alert);
         }
@@ -155,6 +200,17 @@ public class AlertManager {
         SwingUtilities.invokeLater(this.watchdogPanel::rebuild);
     }
 
+    /**
+     * Turns off an alert that is causing problems and shows the warning on it in the panel
+     */
+    public void disableAlert(Alert alert, String warning) {
+        alert.setEnabled(false);
+        alert.setWarning(warning);
+        this.saveAlerts();
+
+        SwingUtilities.invokeLater(this.watchdogPanel::rebuild);
+    }
+
     public Alert cloneAlert(Alert alert) {
         String json = this.gson.toJson(alert, ALERT_TYPE);
         Alert clonedAlert = this.gson.fromJson(json, ALERT_TYPE);
@@ -175,10 +231,47 @@ public class AlertManager {
         this.saveAlerts();
     }
 
-    public void loadAlerts() {
-        final String json = this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS);
-        this.importAlerts(json, this.alerts, false, false, false);
-        this.handleUpgrades();
+    /**
+     * Reads, parses and upgrades the alerts on the calling thread, then swaps them in on the EDT, where the panel
+     * and every other edit touch them
+     *
+     * @param cancelled checked on the EDT before swapping the alerts in, so a load that finishes after shut down does
+     *                  nothing
+     * @param onLoaded run on the EDT once the loaded alerts are in place and published in a snapshot
+     */
+    public void loadAlerts(BooleanSupplier cancelled, Runnable onLoaded) {
+        // Write changes that are still waiting first, so reading doesn't lose them
+        this.saver.flush();
+        long start = System.nanoTime();
+        final StoredAlerts stored = this.readAlerts();
+        long read = System.nanoTime();
+        // Nothing else can see these until they are published, so they are safe to work on here
+        List<Alert> loaded = Strings.isNullOrEmpty(stored.json) ? new ArrayList<>() : this.parseImport(new StringReader(stored.json), false, false).getAlerts();
+        long parsed = System.nanoTime();
+        boolean upgraded = this.handleUpgrades(loaded);
+        log.debug("Loaded {} alerts (read {}ms, parse {}ms, upgrade {}ms)", loaded.size(),
+            TimeUnit.NANOSECONDS.toMillis(read - start),
+            TimeUnit.NANOSECONDS.toMillis(parsed - read),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - parsed));
+
+        SwingUtilities.invokeLater(() -> {
+            if (cancelled.getAsBoolean()) {
+                return;
+            }
+            this.useStored(stored);
+            this.alerts.clear();
+            this.alerts.addAll(loaded);
+            if (upgraded) {
+                // Only stored along with the upgraded alerts, so the upgrade runs again if they never get written
+                synchronized (this.storedShards) {
+                    this.unsavedPluginVersion = this.pluginVersion;
+                }
+            }
+            // Save to store new properties, and anything that was upgraded
+            this.saveAlerts();
+            this.watchdogPanel.rebuild();
+            onLoaded.run();
+        });
     }
 
     public boolean importAlerts(String json, List<Alert> alerts, boolean append, boolean checkRegex, boolean overrideWithDefaults) throws JsonSyntaxException {
@@ -186,33 +279,91 @@ public class AlertManager {
             return false;
         }
 
-        if (!append) {
-            alerts.clear();
-        }
+        return this.applyImport(this.parseImport(new StringReader(json), checkRegex, overrideWithDefaults), alerts, append);
+    }
 
-        Supplier<Stream<Alert>> alertStream = this.tryImport(json);
+    /**
+     * Reads either a single alert or an array of them in one pass, checking the patterns and injecting each alert
+     * as it is read. Doesn't touch the current alerts or the UI, so it can run in the background.
+     */
+    public ParsedImport parseImport(Reader json, boolean checkRegex, boolean overrideWithDefaults) throws JsonSyntaxException {
+        ParsedImport parsed = new ParsedImport();
+        try {
+            JsonReader reader = this.gson.newJsonReader(json);
+            reader.setLenient(true);
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    this.parseAlert(reader, parsed, checkRegex, overrideWithDefaults);
+                }
+                reader.endArray();
+            } else {
+                this.parseAlert(reader, parsed, checkRegex, overrideWithDefaults);
+            }
 
-        // Validate regex properties
-        if (checkRegex && !alertStream.get().allMatch(alert -> {
-            if (alert instanceof RegexMatcher) {
-                RegexMatcher matcher = (RegexMatcher) alert;
-                return PanelUtils.isPatternValid(this.watchdogPanel, matcher.getPattern(), matcher.isRegexEnabled());
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("Unexpected JSON after the alerts");
             }
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+        return parsed;
+    }
 
-            return true;
-        })) {
+    private void parseAlert(JsonReader reader, ParsedImport parsed, boolean checkRegex, boolean overrideWithDefaults) {
+        Alert alert = this.gson.fromJson(reader, ALERT_TYPE);
+        // Ignored legacy types come out as null
+        if (alert == null) {
+            return;
+        }
+
+        if (checkRegex) {
+            this.getAllAlertsFrom(Stream.of(alert), false)
+                .filter(RegexMatcher.class::isInstance)
+                .map(RegexMatcher.class::cast)
+                .forEach(matcher -> {
+                    try {
+                        CompiledPattern.compile(matcher.getPattern(), matcher.isRegexEnabled());
+                        if (matcher.isRegexEnabled() && Util.hasNestedQuantifier(matcher.getPattern())) {
+                            parsed.slowPatterns.add(matcher);
+                        }
+                    } catch (PatternSyntaxException e) {
+                        if (parsed.invalidPattern == null) {
+                            parsed.invalidPattern = matcher;
+                        }
+                    }
+                });
+        }
+
+        this.setUpAlert(alert, overrideWithDefaults);
+        parsed.alerts.add(alert);
+    }
+
+    /**
+     * Adds the parsed alerts, after asking about any patterns that were flagged. Must be called on the EDT.
+     *
+     * @return false if the import was cancelled because of a pattern
+     */
+    public boolean applyImport(ParsedImport parsed, List<Alert> alerts, boolean append) {
+        if (parsed.invalidPattern != null) {
+            // Shows the error
+            PanelUtils.isPatternValid(this.watchdogPanel, parsed.invalidPattern.getPattern(), parsed.invalidPattern.isRegexEnabled());
             return false;
         }
+        for (RegexMatcher matcher : parsed.slowPatterns) {
+            if (!PanelUtils.isPatternSafe(this.watchdogPanel, matcher.getPattern(), matcher.isRegexEnabled())) {
+                return false;
+            }
+        }
 
-        alertStream.get().forEach(alerts::add);
+        if (!append) {
+            alerts.clear();
+        }
+        alerts.addAll(parsed.alerts);
 
         // Save immediately to save new properties
         this.saveAlerts();
 
-        // Inject dependencies
-        this.getAllAlertsFrom(alertStream.get(), false)
-            .forEach(alert -> this.setUpAlert(alert, overrideWithDefaults));
-
         SwingUtilities.invokeLater(() -> {
             this.watchdogPanel.rebuild();
             SwingUtilities.invokeLater(this.watchdogPanel::scrollToBottom);
@@ -220,32 +371,179 @@ public class AlertManager {
         return true;
     }
 
+    @Getter
+    public static class ParsedImport {
+        private final List<Alert> alerts = new ArrayList<>();
+        // The first alert with a pattern that doesn't compile
+        @Nullable
+        private RegexMatcher invalidPattern;
+        // Regexes that might backtrack for a long time
+        private final List<RegexMatcher> slowPatterns = new ArrayList<>();
+    }
+
+    /**
+     * Updates the snapshot right away and writes the alerts to the config shortly after
+     */
     public void saveAlerts() {
-        String json = this.gson.toJson(this.alerts, ALERT_LIST_TYPE);
-        this.configManager.setConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS, json);
+        this.rebuildSnapshot();
+        this.saver.markDirty();
     }
 
-    public String toJSON() {
-        return this.gson.toJson(this.alerts, ALERT_LIST_TYPE);
+    /**
+     * Writes any unsaved changes to the config now
+     */
+    public void flushAlerts() {
+        this.saver.flush();
     }
 
-    private Supplier<Stream<Alert>> tryImport(String json) throws JsonSyntaxException {
-        // Single
-        try {
-            Alert importedAlert = this.gson.fromJson(json, ALERT_TYPE);
-            return () -> Stream.of(importedAlert).filter(Objects::nonNull);
-        } catch (JsonSyntaxException ignored) {
+    /**
+     * Reads the alerts from their shards, or from the legacy single key if they haven't been sharded yet. Doesn't
+     * change what is known to be stored until {@link #useStored} is called with the result, so the alerts that are
+     * still loaded keep being written where they came from.
+     */
+    private StoredAlerts readAlerts() {
+        StoredAlerts stored = new StoredAlerts(this.configManager.getProfile().getId());
+        stored.index = this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERT_SHARDS);
+        if (stored.index == null) {
+            String json = this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS);
+            stored.legacyAlertsStored = json != null;
+            stored.json = json;
+            return stored;
+        }
+
+        List<String> ids = this.gson.fromJson(stored.index, SHARD_LIST_TYPE);
+        StringBuilder json = new StringBuilder("[");
+        for (String id : ids) {
+            String shard = this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERT_SHARD_PREFIX + id);
+            if (shard == null) {
+                log.warn("Alert shard {} is missing", id);
+                continue;
+            }
+            // A shard that doesn't match its hash gets written again on the next save
+            if (shardId(shard).equals(id)) {
+                stored.shards.add(id);
+            }
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(shard);
+        }
+        stored.json = json.append(']').toString();
+        return stored;
+    }
+
+    private void useStored(StoredAlerts stored) {
+        synchronized (this.storedShards) {
+            this.storedShards.clear();
+            this.storedShards.addAll(stored.shards);
+            this.storedShardIndex = stored.index;
+            this.legacyAlertsStored = stored.legacyAlertsStored;
+            this.storedProfileId = stored.profileId;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class StoredAlerts {
+        private final long profileId;
+        private final Set<String> shards = new HashSet<>();
+        @Nullable
+        private String index;
+        @Nullable
+        private String json;
+        private boolean legacyAlertsStored = false;
+    }
+
+    /**
+     * Stores each top level alert or group in its own config key named after the hash of its JSON, so a save only
+     * writes the alerts that changed, plus the list of shards if the order changed
+     */
+    private void writeAlerts() {
+        List<String> ids = new ArrayList<>(this.alerts.size());
+        Map<String, String> shards = new LinkedHashMap<>();
+        for (Alert alert : this.alerts) {
+            String shard = this.gson.toJson(alert, ALERT_TYPE);
+            String id = shardId(shard);
+            ids.add(id);
+            shards.putIfAbsent(id, shard);
+        }
+        String index = this.gson.toJson(ids, SHARD_LIST_TYPE);
+
+        synchronized (this.storedShards) {
+            // Edits in the panel are flushed before it can be left to switch profiles, but one made by the plugin
+            // can still be waiting. The config only writes to the active profile, so it goes there in full.
+            long profileId = this.configManager.getProfile().getId();
+            if (profileId != this.storedProfileId) {
+                log.warn("The profile changed before the alerts were saved, saving them to the new profile");
+                this.storedShards.clear();
+                this.storedShardIndex = null;
+                this.legacyAlertsStored = false;
+                this.storedProfileId = profileId;
+            }
+
+            // New shards first, then the index that points at them, then clean up, so the config is always loadable
+            int written = 0;
+            for (Map.Entry<String, String> shard : shards.entrySet()) {
+                if (this.storedShards.add(shard.getKey())) {
+                    this.configManager.setConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERT_SHARD_PREFIX + shard.getKey(), shard.getValue());
+                    written++;
+                }
+            }
+            if (!index.equals(this.storedShardIndex)) {
+                this.configManager.setConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERT_SHARDS, index);
+                this.storedShardIndex = index;
+            }
+            this.storedShards.removeIf(id -> {
+                if (shards.containsKey(id)) {
+                    return false;
+                }
+                this.configManager.unsetConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERT_SHARD_PREFIX + id);
+                return true;
+            });
+            if (this.legacyAlertsStored) {
+                log.debug("Moved alerts from the legacy key to shards");
+                this.configManager.unsetConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS);
+                this.legacyAlertsStored = false;
+            }
+            if (this.unsavedPluginVersion != null) {
+                this.configManager.setConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION, this.unsavedPluginVersion);
+                this.unsavedPluginVersion = null;
+            }
+            log.debug("Saved alerts, wrote {} of {} shards", written, shards.size());
         }
+    }
+
+    private static String shardId(String shard) {
+        return Hashing.murmur3_128().hashString(shard, StandardCharsets.UTF_8).toString();
+    }
 
-        // Multiple
-        List<Alert> importedAlerts = this.gson.fromJson(json, ALERT_LIST_TYPE);
-        return () -> importedAlerts.stream().filter(Objects::nonNull);
+    private void rebuildSnapshot() {
+        AlertSnapshot snapshot = new AlertSnapshot(this.snapshotGeneration.incrementAndGet(), this.alerts);
+        this.snapshot = snapshot;
+        this.snapshotListeners.forEach(listener -> listener.accept(snapshot));
+    }
+
+    /**
+     * Called with each new snapshot, on the thread that changed the alerts
+     */
+    public void addSnapshotListener(Consumer<AlertSnapshot> listener) {
+        this.snapshotListeners.add(listener);
+    }
+
+    public void removeSnapshotListener(Consumer<AlertSnapshot> listener) {
+        this.snapshotListeners.remove(listener);
+    }
+
+    public String toJSON() {
+        return this.gson.toJson(this.alerts, ALERT_LIST_TYPE);
     }
 
     private void setUpAlert(Alert alert, boolean overrideWithDefaults) {
         WatchdogPlugin.getInstance().getInjector().injectMembers(alert);
         if (alert instanceof AlertGroup) {
-            ((AlertGroup) alert).getAlerts().forEach(subAlert -> this.setUpAlert(subAlert, overrideWithDefaults));
+            ((AlertGroup) alert).getAlerts().forEach(subAlert -> {
+                subAlert.setParent((AlertGroup) alert);
+                this.setUpAlert(subAlert, overrideWithDefaults);
+            });
         } else {
             for (INotification notification : alert.getNotifications()) {
                 WatchdogPlugin.getInstance().getInjector().injectMembers(notification);
@@ -257,7 +555,10 @@ public class AlertManager {
         }
     }
 
-    private void handleUpgrades() {
+    /**
+     * @return true if the alerts are from an older version, and the current version should be stored with them
+     */
+    private boolean handleUpgrades(List<Alert> alerts) {
         Version currentVersion = new Version(this.pluginVersion);
         Version configVersion = new Version(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION));
         log.debug("currentVersion: " + currentVersion);
@@ -267,7 +568,7 @@ public class AlertManager {
             // Changed Stat Drain to Stat Change in v2.4.0, so need to swap sign of drainAmount and move to new alert
             if (configVersion.compareTo(new Version("2.4.0")) < 0) {
                 log.debug("Need to convert StatDrainAlerts to StatChangedAlerts");
-                this.alerts.replaceAll(alert -> {
+                alerts.replaceAll(alert -> {
                     if (alert instanceof StatDrainAlert) {
                         StatDrainAlert statDrainAlert = (StatDrainAlert) alert;
                         StatChangedAlert statChangedAlert = new StatChangedAlert();
@@ -285,7 +586,7 @@ public class AlertManager {
 
                 // Not sure why I thought it was a good idea to store the decibels in the JSON
                 log.debug("Need to convert all Sound and TTS gain back to 0,10 scale.");
-                this.alerts.stream()
+                alerts.stream()
                     .flatMap(alert -> alert.getNotifications().stream())
                     .filter(notification -> notification instanceof IAudioNotification)
                     .map(notification -> (IAudioNotification) notification)
@@ -294,7 +595,7 @@ public class AlertManager {
 
             if (configVersion.compareTo(new Version("2.8.0")) < 0) {
                 log.debug("Need to convert flash notifications to new properties");
-                this.alerts.stream()
+                alerts.stream()
                     .flatMap(alert -> alert.getNotifications().stream())
                     .filter(notification -> notification instanceof ScreenFlash)
                     .map(notification -> (ScreenFlash) notification)
@@ -308,7 +609,7 @@ public class AlertManager {
 
             if (configVersion.compareTo(new Version("2.13.0")) < 0) {
                 log.debug("Need to set default overlay notification text color");
-                this.alerts.stream()
+                alerts.stream()
                     .flatMap(alert -> alert.getNotifications().stream())
                     .filter(notification -> notification instanceof Overlay)
                     .map(notification -> (Overlay) notification)
@@ -319,8 +620,8 @@ public class AlertManager {
                     });
             }
 
-            this.configManager.setConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION, currentVersion.getVersion());
-            this.saveAlerts();
+            return true;
         }
+        return false;
     }
 }
@@ -0,0 +1,175 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.alerts.RegexMatcher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Finds which of a set of {@link RegexMatcher} alerts could match an input in a single pass over it, using an
+ * Aho-Corasick automaton built from the literal text each glob requires. Alerts without a required literal, like
+ * regex alerts, are always candidates. Only the candidates need the full match.
+ */
+public class AlertPrefilter {
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    private final BitSet alwaysCandidates = new BitSet();
+
+    // The trie, indexed by state. Each state's transitions are sorted by character for a binary search.
+    private final char[][] transitionChars;
+    private final int[][] transitionStates;
+    private final int[] failure;
+    // The alerts whose literal ends at this state, including the ones reached through the failure links
+    private final int[][] outputs;
+
+    public AlertPrefilter(Alert[] alerts) {
+        List<StringBuilder> trieChars = new ArrayList<>();
+        List<List<Integer>> trieStates = new ArrayList<>();
+        List<List<Integer>> trieOutputs = new ArrayList<>();
+        addState(trieChars, trieStates, trieOutputs);
+
+        for (int i = 0; i < alerts.length; i++) {
+            String literal = requiredLiteral(alerts[i]);
+            if (literal.isEmpty()) {
+                this.alwaysCandidates.set(i);
+                continue;
+            }
+
+            int state = 0;
+            for (int c = 0; c < literal.length(); c++) {
+                int index = trieChars.get(state).indexOf(String.valueOf(literal.charAt(c)));
+                if (index < 0) {
+                    trieChars.get(state).append(literal.charAt(c));
+                    trieStates.get(state).add(trieChars.size());
+                    state = addState(trieChars, trieStates, trieOutputs);
+                } else {
+                    state = trieStates.get(state).get(index);
+                }
+            }
+            trieOutputs.get(state).add(i);
+        }
+
+        int stateCount = trieChars.size();
+        this.transitionChars = new char[stateCount][];
+        this.transitionStates = new int[stateCount][];
+        this.failure = new int[stateCount];
+        this.outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            this.sortTransitions(state, trieChars.get(state).toString().toCharArray(), trieStates.get(state));
+        }
+
+        // Breadth first so that a state's failure state is always finished before the state itself
+        Queue<Integer> queue = new ArrayDeque<>();
+        this.outputs[0] = toArray(trieOutputs.get(0));
+        for (int child : this.transitionStates[0]) {
+            this.failure[child] = 0;
+            this.outputs[child] = toArray(trieOutputs.get(child));
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int t = 0; t < this.transitionChars[state].length; t++) {
+                char ch = this.transitionChars[state][t];
+                int child = this.transitionStates[state][t];
+                int fail = this.failure[state];
+                while (fail != 0 && this.next(fail, ch) < 0) {
+                    fail = this.failure[fail];
+                }
+                int failNext = this.next(fail, ch);
+                this.failure[child] = failNext < 0 ? 0 : failNext;
+                this.outputs[child] = merge(toArray(trieOutputs.get(child)), this.outputs[this.failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @return the indices of the alerts that could match the input, in the same order as the alerts given
+     */
+    public BitSet findCandidates(String input) {
+        BitSet candidates = (BitSet) this.alwaysCandidates.clone();
+        int state = 0;
+        for (int i = 0; i < input.length(); i++) {
+            char ch = input.charAt(i);
+            // The same ASCII only case folding as a CASE_INSENSITIVE regex
+            if (ch >= 'A' && ch <= 'Z') {
+                ch = (char) (ch + ('a' - 'A'));
+            }
+
+            int next = this.next(state, ch);
+            while (next < 0 && state != 0) {
+                state = this.failure[state];
+                next = this.next(state, ch);
+            }
+            state = next < 0 ? 0 : next;
+
+            for (int output : this.outputs[state]) {
+                candidates.set(output);
+            }
+        }
+        return candidates;
+    }
+
+    private int next(int state, char ch) {
+        int index = Arrays.binarySearch(this.transitionChars[state], ch);
+        return index < 0 ? -1 : this.transitionStates[state][index];
+    }
+
+    private void sortTransitions(int state, char[] chars, List<Integer> states) {
+        Integer[] order = new Integer[chars.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Character.compare(chars[a], chars[b]));
+
+        this.transitionChars[state] = new char[chars.length];
+        this.transitionStates[state] = new int[chars.length];
+        for (int i = 0; i < order.length; i++) {
+            this.transitionChars[state][i] = chars[order[i]];
+            this.transitionStates[state][i] = states.get(order[i]);
+        }
+    }
+
+    private static String requiredLiteral(Alert alert) {
+        RegexMatcher regexMatcher = (RegexMatcher) alert;
+        if (regexMatcher.isRegexEnabled()) {
+            return "";
+        }
+
+        try {
+            return regexMatcher.getCompiledPattern().getRequiredLiteral();
+        } catch (PatternSyntaxException ex) {
+            // Leave it to the full match to deal with
+            return "";
+        }
+    }
+
+    private static int addState(List<StringBuilder> trieChars, List<List<Integer>> trieStates, List<List<Integer>> trieOutputs) {
+        trieChars.add(new StringBuilder());
+        trieStates.add(new ArrayList<>());
+        trieOutputs.add(new ArrayList<>());
+        return trieChars.size() - 1;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.isEmpty() ? NO_OUTPUTS : list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        if (own.length == 0) {
+            return inherited;
+        }
+        int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+}
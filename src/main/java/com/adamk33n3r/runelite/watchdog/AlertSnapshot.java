@@ -0,0 +1,174 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.alerts.AlertGroup;
+import com.adamk33n3r.runelite.watchdog.alerts.StatChangedAlert;
+import com.adamk33n3r.runelite.watchdog.alerts.XPDropAlert;
+
+import net.runelite.api.Skill;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An immutable index of the enabled alerts, bucketed by {@link TriggerType} so that an event only has to look at
+ * the alerts that can trigger on it. The {@link AlertManager} builds a new one whenever the alerts change, so
+ * the arrays handed out here must never be modified.
+ * <p>
+ * Alerts are only included if they and all of their groups are enabled.
+ */
+public class AlertSnapshot {
+    private static final Alert[] NO_ALERTS = new Alert[0];
+    private static final StatChangedAlert[] NO_STAT_CHANGED_ALERTS = new StatChangedAlert[0];
+    private static final XPDropAlert[] NO_XP_DROP_ALERTS = new XPDropAlert[0];
+    // With fewer alerts than this, matching each one costs about the same as running the prefilter
+    private static final int MIN_ALERTS_FOR_PREFILTER = 4;
+
+    public static final AlertSnapshot EMPTY = new AlertSnapshot(0, new ArrayList<>());
+
+    @Getter
+    private final long generation;
+    private final Map<TriggerType, Alert[]> alertsByType = new EnumMap<>(TriggerType.class);
+    // Stats change constantly in combat, so their alerts are also split up by skill
+    private final Map<Skill, StatChangedAlert[]> statChangedAlertsBySkill = new EnumMap<>(Skill.class);
+    private final Map<Skill, XPDropAlert[]> xpDropAlertsBySkill = new EnumMap<>(Skill.class);
+    // The alert whose debounce time applies to each included alert: itself or the group with the longest debounce
+    private final Map<Alert, Alert> debounceOwners = new IdentityHashMap<>();
+    private final Set<Alert> distinctDebounceOwners = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Where each included alert is in the whole alert list, groups flattened, across all trigger types
+    private final Map<Alert, Integer> listIndexes = new IdentityHashMap<>();
+    // Built the first time an event needs one, since most trigger types never use them
+    private final Map<TriggerType, AlertPrefilter> prefilters = new ConcurrentHashMap<>();
+
+    AlertSnapshot(long generation, List<Alert> alerts) {
+        this.generation = generation;
+
+        Map<TriggerType, List<Alert>> buckets = new EnumMap<>(TriggerType.class);
+        this.addAlerts(buckets, alerts, null);
+        buckets.forEach((type, bucket) -> this.alertsByType.put(type, bucket.toArray(NO_ALERTS)));
+        bucketBySkill(this.getAlerts(TriggerType.STAT_CHANGED), StatChangedAlert.class, StatChangedAlert::getSkill, NO_STAT_CHANGED_ALERTS, this.statChangedAlertsBySkill);
+        bucketBySkill(this.getAlerts(TriggerType.XP_DROP), XPDropAlert.class, XPDropAlert::getSkill, NO_XP_DROP_ALERTS, this.xpDropAlertsBySkill);
+    }
+
+    private static <T extends Alert> void bucketBySkill(Alert[] alerts, Class<T> type, Function<T, Skill> getSkill, T[] empty, Map<Skill, T[]> bySkill) {
+        Map<Skill, List<T>> buckets = new EnumMap<>(Skill.class);
+        for (Alert alert : alerts) {
+            T typedAlert = type.cast(alert);
+            Skill skill = getSkill.apply(typedAlert);
+            if (skill != null) {
+                buckets.computeIfAbsent(skill, s -> new ArrayList<>()).add(typedAlert);
+            }
+        }
+        buckets.forEach((skill, bucket) -> bySkill.put(skill, bucket.toArray(empty)));
+    }
+
+    private void addAlerts(Map<TriggerType, List<Alert>> buckets, List<Alert> alerts, @Nullable Alert parentDebounceOwner) {
+        for (Alert alert : alerts) {
+            // Outer groups win ties, the same as when this was worked out on every fire
+            Alert debounceOwner = parentDebounceOwner;
+            if (alert.getDebounceTime() > 0 && (debounceOwner == null || alert.getDebounceTime() > debounceOwner.getDebounceTime())) {
+                debounceOwner = alert;
+            }
+
+            if (alert instanceof AlertGroup) {
+                if (alert.isEnabled()) {
+                    this.addAlerts(buckets, ((AlertGroup) alert).getAlerts(), debounceOwner);
+                }
+                continue;
+            }
+
+            TriggerType type = alert.getType();
+            // Deprecated alerts that haven't been upgraded yet don't have a type and can't trigger
+            if (!alert.isEnabled() || type == null) {
+                continue;
+            }
+
+            buckets.computeIfAbsent(type, t -> new ArrayList<>()).add(alert);
+            this.listIndexes.put(alert, this.listIndexes.size());
+            if (debounceOwner == null) {
+                debounceOwner = alert;
+            }
+            this.debounceOwners.put(alert, debounceOwner);
+            this.distinctDebounceOwners.add(debounceOwner);
+        }
+    }
+
+    /**
+     * @return the enabled alerts of this type, in the order they appear in the alert list
+     */
+    public Alert[] getAlerts(TriggerType type) {
+        return this.alertsByType.getOrDefault(type, NO_ALERTS);
+    }
+
+    /**
+     * @return the enabled stat changed alerts for this skill, which must not be modified
+     */
+    public StatChangedAlert[] getStatChangedAlerts(Skill skill) {
+        return this.statChangedAlertsBySkill.getOrDefault(skill, NO_STAT_CHANGED_ALERTS);
+    }
+
+    /**
+     * @return the enabled XP drop alerts for this skill, which must not be modified
+     */
+    public XPDropAlert[] getXPDropAlerts(Skill skill) {
+        return this.xpDropAlertsBySkill.getOrDefault(skill, NO_XP_DROP_ALERTS);
+    }
+
+    /**
+     * @return the alert whose debounce time and last trigger time apply when this alert fires, or null if the alert
+     * or one of its groups is disabled
+     */
+    @Nullable
+    public Alert getDebounceOwner(Alert alert) {
+        return this.debounceOwners.get(alert);
+    }
+
+    /**
+     * @return true if the alert and all of its groups are enabled
+     */
+    public boolean contains(Alert alert) {
+        return this.listIndexes.containsKey(alert);
+    }
+
+    /**
+     * @return where the enabled alert is in the alert list, for putting alerts of different types back in order
+     */
+    public int getListIndex(Alert alert) {
+        return this.listIndexes.get(alert);
+    }
+
+    /**
+     * @return true if the alert is the debounce owner of at least one alert in this snapshot
+     */
+    public boolean isDebounceOwner(Alert alert) {
+        return this.distinctDebounceOwners.contains(alert);
+    }
+
+    /**
+     * @return the prefilter for the enabled alerts of this type, or null if there are too few alerts for it to help.
+     * Only for types whose alerts are {@link com.adamk33n3r.runelite.watchdog.alerts.RegexMatcher}s.
+     */
+    @Nullable
+    public AlertPrefilter getPrefilter(TriggerType type) {
+        Alert[] alerts = this.getAlerts(type);
+        if (alerts.length < MIN_ALERTS_FOR_PREFILTER) {
+            return null;
+        }
+
+        AlertPrefilter prefilter = this.prefilters.get(type);
+        if (prefilter == null) {
+            prefilter = this.prefilters.computeIfAbsent(type, t -> new AlertPrefilter(alerts));
+        }
+        return prefilter;
+    }
+}
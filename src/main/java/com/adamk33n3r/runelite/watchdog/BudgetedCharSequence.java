@@ -0,0 +1,47 @@
+package com.adamk33n3r.runelite.watchdog;
+
+/**
+ * Counts every character the regex engine reads and gives up once it has read too many. The engine only sees the
+ * input through {@link CharSequence}, so this bounds how long a backtracking pattern can run on one input.
+ */
+class BudgetedCharSequence implements CharSequence {
+    private final String input;
+    private final int offset;
+    private final int length;
+    // Shared with sub sequences so they use up the same budget
+    private final int[] remaining;
+
+    BudgetedCharSequence(String input, int budget) {
+        this(input, 0, input.length(), new int[] { budget });
+    }
+
+    private BudgetedCharSequence(String input, int offset, int length, int[] remaining) {
+        this.input = input;
+        this.offset = offset;
+        this.length = length;
+        this.remaining = remaining;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--this.remaining[0] < 0) {
+            throw new RegexBudgetExceededException();
+        }
+        return this.input.charAt(this.offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new BudgetedCharSequence(this.input, this.offset + start, end - start, this.remaining);
+    }
+
+    @Override
+    public String toString() {
+        return this.input.substring(this.offset, this.offset + this.length);
+    }
+}
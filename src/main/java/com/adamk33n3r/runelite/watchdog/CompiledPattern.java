@@ -0,0 +1,97 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The compiled form of a glob or regex pattern from a {@link com.adamk33n3r.runelite.watchdog.alerts.RegexMatcher}.
+ * Compiled patterns are cached on the pattern text so validating a pattern in the editor and then matching it
+ * against events only compiles it once.
+ */
+public class CompiledPattern {
+    private static final String[] NO_GROUPS = new String[0];
+    private static final int MAX_CACHED_PATTERNS = 256;
+
+    // Access ordered so that the least recently used pattern is the one that gets evicted
+    private static final Map<String, CompiledPattern> CACHE = new LinkedHashMap<String, CompiledPattern>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledPattern> eldest) {
+            return this.size() > MAX_CACHED_PATTERNS;
+        }
+    };
+
+    @Getter
+    private final Pattern pattern;
+    // Simple globs skip the regex when matching. They don't have any groups to capture.
+    @Nullable
+    private final GlobMatcher globMatcher;
+    /**
+     * Lower-cased text that any matching input has to contain, ignoring ASCII case, or an empty string if there
+     * isn't any. Only globs have one.
+     */
+    @Getter
+    private final String requiredLiteral;
+
+    private CompiledPattern(Pattern pattern, @Nullable GlobMatcher globMatcher, String requiredLiteral) {
+        this.pattern = pattern;
+        this.globMatcher = globMatcher;
+        this.requiredLiteral = requiredLiteral;
+    }
+
+    public static CompiledPattern compile(String pattern, boolean isRegex) throws PatternSyntaxException {
+        // The same text means something different as a glob than as a regex
+        String key = (isRegex ? "regex:" : "glob:") + pattern;
+        synchronized (CACHE) {
+            CompiledPattern cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CompiledPattern compiled = isRegex
+            ? new CompiledPattern(Pattern.compile(pattern), null, "")
+            : new CompiledPattern(
+                Pattern.compile(Util.createRegexFromGlob(pattern), Pattern.CASE_INSENSITIVE),
+                GlobMatcher.compile(pattern),
+                GlobMatcher.requiredLiteral(pattern));
+        synchronized (CACHE) {
+            CACHE.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * @return the capture groups if the whole input matches, null if it doesn't match
+     */
+    @Nullable
+    public String[] match(String input) {
+        return this.match(input, 0);
+    }
+
+    /**
+     * @param stepBudget the most characters the regex can read before giving up, or 0 for no limit
+     * @return the capture groups if the whole input matches, null if it doesn't match
+     * @throws RegexBudgetExceededException if the regex reads more characters than the budget
+     */
+    @Nullable
+    public String[] match(String input, int stepBudget) throws RegexBudgetExceededException {
+        if (this.globMatcher != null) {
+            return this.globMatcher.matches(input) ? NO_GROUPS : null;
+        }
+
+        Matcher matcher = this.pattern.matcher(stepBudget > 0 ? new BudgetedCharSequence(input, stepBudget) : input);
+        if (!matcher.matches()) return null;
+
+        String[] groups = new String[matcher.groupCount()];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = matcher.group(i + 1);
+        }
+        return groups;
+    }
+}
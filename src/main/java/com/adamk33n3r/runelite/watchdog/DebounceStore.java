@@ -0,0 +1,58 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The last time each alert fired, on the monotonic {@link System#nanoTime()} clock. Checking and updating the time
+ * is a single compare-and-set, so two threads firing alerts in the same group can't both get past the debounce.
+ */
+public class DebounceStore {
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final Map<Alert, AtomicLong> lastTriggered = new ConcurrentHashMap<>();
+
+    /**
+     * Marks the alert as fired now, unless it already fired within its debounce time.
+     *
+     * @param alert the alert whose debounce applies, see {@link AlertSnapshot#getDebounceOwner(Alert)}
+     * @return true if the alert should fire
+     */
+    public boolean tryFire(Alert alert) {
+        return this.tryFire(alert, System.nanoTime());
+    }
+
+    boolean tryFire(Alert alert, long now) {
+        AtomicLong last = this.lastTriggered.computeIfAbsent(alert, a -> new AtomicLong(NEVER));
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(alert.getDebounceTime());
+        while (true) {
+            long previous = last.get();
+            if (previous != NEVER && now - previous < debounceNanos) {
+                return false;
+            }
+            if (last.compareAndSet(previous, now)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Forgets the alerts that can no longer fire, so deleted alerts don't stick around. Disabling an alert or its
+     * group also resets its debounce.
+     */
+    public void retain(AlertSnapshot snapshot) {
+        this.lastTriggered.keySet().removeIf(alert -> !snapshot.isDebounceOwner(alert));
+    }
+
+    public void clear() {
+        this.lastTriggered.clear();
+    }
+
+    int size() {
+        return this.lastTriggered.size();
+    }
+}
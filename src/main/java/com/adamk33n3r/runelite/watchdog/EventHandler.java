@@ -7,8 +7,8 @@ import net.runelite.api.*;
 import net.runelite.api.events.*;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.events.NotificationFired;
-import net.runelite.client.game.ItemManager;
 import net.runelite.client.util.Text;
 
 import lombok.extern.slf4j.Slf4j;
@@ -18,11 +18,10 @@ import javax.inject.Provider;
 import javax.inject.Singleton;
 import javax.swing.SwingUtilities;
 import java.awt.TrayIcon;
-import java.time.Instant;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static com.adamk33n3r.runelite.watchdog.alerts.SpawnedAlert.SpawnedDespawned.DESPAWNED;
 import static com.adamk33n3r.runelite.watchdog.alerts.SpawnedAlert.SpawnedDespawned.SPAWNED;
@@ -35,10 +34,13 @@ public class EventHandler {
     private Client client;
 
     @Inject
-    private ItemManager itemManager;
+    private AlertManager alertManager;
 
     @Inject
-    private AlertManager alertManager;
+    private SpawnNameCache spawnNameCache;
+
+    @Inject
+    private WatchdogConfig config;
 
     @Inject
     private EventBus eventBus;
@@ -46,13 +48,157 @@ public class EventHandler {
     @Inject
     private Provider<HistoryPanel> historyPanelProvider;
 
-    private final Map<Alert, Instant> lastTriggered = new HashMap<>();
+    private final DebounceStore debounceStore = new DebounceStore();
+
+    // How many times an alert's pattern can run out of steps, since it last changed, before the alert is disabled
+    private static final int REGEX_BUDGET_STRIKES = 3;
+    private volatile int regexStepBudget;
+    private final Map<Alert, RegexBudgetStrikes> regexBudgetStrikes = new ConcurrentHashMap<>();
 
-    private final Map<Skill, Integer> previousSkillLevelTable = new EnumMap<>(Skill.class);
-    private final Map<Skill, Integer> previousSkillXPTable = new EnumMap<>(Skill.class);
+    // Indexed by skill ordinal, UNKNOWN until the first login or stat change for the skill
+    private static final int UNKNOWN = -1;
+    private final int[] previousSkillLevelTable = createSkillTable();
+    private final int[] previousSkillXPTable = createSkillTable();
 
     private boolean ignoreNotificationFired = false;
 
+    private final InventoryDelta inventoryDelta = new InventoryDelta();
+
+    // Spawn handlers are only subscribed while an enabled alert wants their type and mode, so that scene loads don't
+    // resolve names for every object when nothing is listening
+    private final Map<SpawnedAlert.SpawnedDespawned, Map<SpawnedAlert.SpawnedType, EventBus.Subscriber>> spawnedSubscribers = new EnumMap<>(SpawnedAlert.SpawnedDespawned.class);
+    private final Consumer<AlertSnapshot> snapshotListener = this::onSnapshotChanged;
+    private boolean started = false;
+
+    // When batching, spawn names are collected per mode and type over the tick and matched on the next game tick
+    private volatile boolean batchSpawns = false;
+    private final Map<SpawnedAlert.SpawnedDespawned, Map<SpawnedAlert.SpawnedType, Set<String>>> pendingSpawns = new EnumMap<>(SpawnedAlert.SpawnedDespawned.class);
+    private boolean hasPendingSpawns = false;
+    private boolean sceneLoading = false;
+
+    // Set while matching happens on the pipeline's thread instead of the thread that posted the event
+    private volatile MatchPipeline<MatchEvent> pipeline;
+
+    private final MatchMemo gameMessageMemo = new MatchMemo("Game message", 512);
+    private final MatchMemo playerChatMemo = new MatchMemo("Player chat", 512);
+    private final MatchMemo notificationFiredMemo = new MatchMemo("Notification fired", 128);
+    private final Map<SpawnedAlert.SpawnedDespawned, Map<SpawnedAlert.SpawnedType, MatchMemo>> spawnedMemos = createSpawnedMemos();
+
+    private static int[] createSkillTable() {
+        int[] table = new int[Skill.values().length];
+        Arrays.fill(table, UNKNOWN);
+        return table;
+    }
+
+    private static Map<SpawnedAlert.SpawnedDespawned, Map<SpawnedAlert.SpawnedType, MatchMemo>> createSpawnedMemos() {
+        Map<SpawnedAlert.SpawnedDespawned, Map<SpawnedAlert.SpawnedType, MatchMemo>> memos = new EnumMap<>(SpawnedAlert.SpawnedDespawned.class);
+        for (SpawnedAlert.SpawnedDespawned mode : SpawnedAlert.SpawnedDespawned.values()) {
+            Map<SpawnedAlert.SpawnedType, MatchMemo> memosByType = new EnumMap<>(SpawnedAlert.SpawnedType.class);
+            for (SpawnedAlert.SpawnedType type : SpawnedAlert.SpawnedType.values()) {
+                memosByType.put(type, new MatchMemo(type.getName() + " " + mode.getName(), 256));
+            }
+            memos.put(mode, memosByType);
+        }
+        return memos;
+    }
+
+    public void startUp() {
+        this.batchSpawns = this.config.batchSpawnsPerTick();
+        this.regexStepBudget = this.config.regexStepBudget();
+        this.updatePipeline(this.config.matchOffClientThread());
+        this.eventBus.register(this);
+        synchronized (this.spawnedSubscribers) {
+            this.started = true;
+        }
+        this.alertManager.addSnapshotListener(this.snapshotListener);
+        this.onSnapshotChanged(this.alertManager.getSnapshot());
+    }
+
+    public void shutDown() {
+        this.alertManager.removeSnapshotListener(this.snapshotListener);
+        synchronized (this.spawnedSubscribers) {
+            this.started = false;
+            this.spawnedSubscribers.values().forEach(subscribers -> subscribers.values().forEach(this.eventBus::unregister));
+            this.spawnedSubscribers.clear();
+        }
+        this.eventBus.unregister(this);
+        this.updatePipeline(false);
+        this.spawnNameCache.clear();
+        this.debounceStore.clear();
+        this.pendingSpawns.clear();
+        this.hasPendingSpawns = false;
+        this.inventoryDelta.reset();
+    }
+
+    @Subscribe
+    private void onConfigChanged(ConfigChanged configChanged) {
+        if (!configChanged.getGroup().equals(WatchdogConfig.CONFIG_GROUP_NAME)) {
+            return;
+        }
+
+        if (configChanged.getKey().equals(WatchdogConfig.BATCH_SPAWNS_PER_TICK)) {
+            this.batchSpawns = this.config.batchSpawnsPerTick();
+        } else if (configChanged.getKey().equals(WatchdogConfig.REGEX_STEP_BUDGET)) {
+            this.regexStepBudget = this.config.regexStepBudget();
+        } else if (configChanged.getKey().equals(WatchdogConfig.MATCH_OFF_CLIENT_THREAD)) {
+            this.updatePipeline(this.config.matchOffClientThread());
+        }
+    }
+
+    private synchronized void updatePipeline(boolean enabled) {
+        if (enabled && this.pipeline == null) {
+            this.pipeline = new MatchPipeline<>("watchdog-matcher", 1024, this::handleMatchEvent);
+        } else if (!enabled && this.pipeline != null) {
+            // Events already in the ring still get matched, new ones are matched where they are posted
+            this.pipeline.stop();
+            this.pipeline = null;
+        }
+    }
+
+    private void submit(MatchEvent event) {
+        MatchPipeline<MatchEvent> pipeline = this.pipeline;
+        if (pipeline != null) {
+            pipeline.publish(event);
+        } else {
+            this.handleMatchEvent(event);
+        }
+    }
+
+    private void handleMatchEvent(MatchEvent event) {
+        switch (event.getKind()) {
+            case GAME_MESSAGE: {
+                // PlayerChatAlert extends ChatAlert, so player chat alerts have always been matched against game messages
+                // too, and they fire in between the game message alerts in the order they are in the alert list
+                AlertSnapshot snapshot = this.alertManager.getSnapshot();
+                this.fireInListOrder(snapshot,
+                    this.findMatches(snapshot, this.gameMessageMemo, TriggerType.GAME_MESSAGE, event.getInput()),
+                    this.findMatches(snapshot, this.playerChatMemo, TriggerType.PLAYER_CHAT_MESSAGE, event.getInput()));
+                break;
+            }
+            case PLAYER_CHAT:
+                this.matchAlerts(this.playerChatMemo, TriggerType.PLAYER_CHAT_MESSAGE, event.getInput());
+                break;
+            case NOTIFICATION_FIRED:
+                this.matchAlerts(this.notificationFiredMemo, TriggerType.NOTIFICATION_FIRED, event.getInput());
+                break;
+            case SPAWNED:
+                for (MatchResult match : this.matchSpawned(event.getInput(), event.getMode(), event.getSpawnedType())) {
+                    this.fireAlert(match.getAlert(), match.getGroups());
+                }
+                break;
+            case SPAWN_BATCH:
+                Set<Alert> firedThisBatch = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (MatchEvent spawn : event.getBatch()) {
+                    for (MatchResult match : this.matchSpawned(spawn.getInput(), spawn.getMode(), spawn.getSpawnedType())) {
+                        if (firedThisBatch.add(match.getAlert())) {
+                            this.fireAlert(match.getAlert(), match.getGroups());
+                        }
+                    }
+                }
+                break;
+        }
+    }
+
     public synchronized void notify(String message) {
         this.ignoreNotificationFired = true;
         // The event bus is synchronous
@@ -85,23 +231,11 @@ public class EventHandler {
                 || chatMessage.getType() == ChatMessageType.CLAN_GUEST_CHAT
                 || chatMessage.getType() == ChatMessageType.CLAN_GIM_CHAT
         ) {
-            this.alertManager.getAllEnabledAlertsOfType(PlayerChatAlert.class)
-                .forEach(chatAlert -> {
-                    String[] groups = this.matchPattern(chatAlert, unformattedMessage);
-                    if (groups == null) return;
-
-                    this.fireAlert(chatAlert, groups);
-                });
+            this.submit(MatchEvent.message(MatchEvent.Kind.PLAYER_CHAT, unformattedMessage));
             return;
         }
 
-        this.alertManager.getAllEnabledAlertsOfType(ChatAlert.class)
-            .forEach(gameAlert -> {
-                String[] groups = this.matchPattern(gameAlert, unformattedMessage);
-                if (groups == null) return;
-
-                this.fireAlert(gameAlert, groups);
-            });
+        this.submit(MatchEvent.message(MatchEvent.Kind.GAME_MESSAGE, unformattedMessage));
     }
     //endregion
 
@@ -113,13 +247,7 @@ public class EventHandler {
             return;
         }
 
-        this.alertManager.getAllEnabledAlertsOfType(NotificationFiredAlert.class)
-            .forEach(notificationFiredAlert -> {
-                String[] groups = this.matchPattern(notificationFiredAlert, notificationFired.getMessage());
-                if (groups == null) return;
-
-                this.fireAlert(notificationFiredAlert, groups);
-            });
+        this.submit(MatchEvent.message(MatchEvent.Kind.NOTIFICATION_FIRED, notificationFired.getMessage()));
     }
     //endregion
 
@@ -128,9 +256,12 @@ public class EventHandler {
     private void onGameStateChanged(GameStateChanged gameStateChanged) {
         if (gameStateChanged.getGameState() == GameState.LOGGED_IN) {
             for (Skill skill : Skill.values()) {
-                this.previousSkillLevelTable.put(skill, this.client.getBoostedSkillLevel(skill));
-                this.previousSkillXPTable.put(skill, this.client.getSkillExperience(skill));
+                this.previousSkillLevelTable[skill.ordinal()] = this.client.getBoostedSkillLevel(skill);
+                this.previousSkillXPTable[skill.ordinal()] = this.client.getSkillExperience(skill);
             }
+        } else if (gameStateChanged.getGameState() == GameState.LOGIN_SCREEN || gameStateChanged.getGameState() == GameState.HOPPING) {
+            // The next inventory is from a new session, possibly of another account
+            this.inventoryDelta.reset();
         }
     }
 
@@ -142,44 +273,42 @@ public class EventHandler {
     }
 
     private void handleStatChanged(StatChanged statChanged) {
-        Integer previousLevel = this.previousSkillLevelTable.put(statChanged.getSkill(), statChanged.getBoostedLevel());
-        if (previousLevel == null) {
+        int skill = statChanged.getSkill().ordinal();
+        int previousLevel = this.previousSkillLevelTable[skill];
+        this.previousSkillLevelTable[skill] = statChanged.getBoostedLevel();
+        if (previousLevel == UNKNOWN) {
             return;
         }
 
-        this.alertManager.getAllEnabledAlertsOfType(StatChangedAlert.class)
-            .filter(alert -> {
-                boolean isSkill = alert.getSkill() == statChanged.getSkill();
-                if (!isSkill) {
-                    return false;
-                }
-
-                int targetLevel = statChanged.getLevel() + alert.getChangedAmount();
-                boolean isNegative = alert.getChangedAmount() < 0;
-                boolean isLower = statChanged.getBoostedLevel() <= targetLevel;
-                boolean wasHigher = previousLevel > targetLevel;
-                boolean isHigher = statChanged.getBoostedLevel() >= targetLevel;
-                boolean wasLower = previousLevel < targetLevel;
-//                log.debug("targetLevel: " + targetLevel);
-//                log.debug("{}, {}, {}", isSkill, isLower, wasHigher);
-                return (isNegative && isLower && wasHigher) || (!isNegative && isHigher && wasLower);
-            })
-            .forEach(alert -> this.fireAlert(alert, statChanged.getSkill().getName()));
+        for (StatChangedAlert statChangedAlert : this.alertManager.getSnapshot().getStatChangedAlerts(statChanged.getSkill())) {
+            int targetLevel = statChanged.getLevel() + statChangedAlert.getChangedAmount();
+            boolean isNegative = statChangedAlert.getChangedAmount() < 0;
+            boolean isLower = statChanged.getBoostedLevel() <= targetLevel;
+            boolean wasHigher = previousLevel > targetLevel;
+            boolean isHigher = statChanged.getBoostedLevel() >= targetLevel;
+            boolean wasLower = previousLevel < targetLevel;
+//            log.debug("targetLevel: " + targetLevel);
+//            log.debug("{}, {}", isLower, wasHigher);
+            if ((isNegative && isLower && wasHigher) || (!isNegative && isHigher && wasLower)) {
+                this.fireAlert(statChangedAlert, statChanged.getSkill().getName());
+            }
+        }
     }
 
     private void handleXPDrop(StatChanged statChanged) {
-        Integer previousXP = this.previousSkillXPTable.put(statChanged.getSkill(), statChanged.getXp());
-        if (previousXP == null) {
+        int skill = statChanged.getSkill().ordinal();
+        int previousXP = this.previousSkillXPTable[skill];
+        this.previousSkillXPTable[skill] = statChanged.getXp();
+        if (previousXP == UNKNOWN) {
             return;
         }
 
-        this.alertManager.getAllEnabledAlertsOfType(XPDropAlert.class)
-            .filter(alert -> {
-                boolean isSkill = alert.getSkill() == statChanged.getSkill();
-                int gainedXP = statChanged.getXp() - previousXP;
-                return isSkill && gainedXP >= alert.getGainedAmount();
-            })
-            .forEach(alert -> this.fireAlert(alert, statChanged.getSkill().getName()));
+        int gainedXP = statChanged.getXp() - previousXP;
+        for (XPDropAlert xpDropAlert : this.alertManager.getSnapshot().getXPDropAlerts(statChanged.getSkill())) {
+            if (gainedXP >= xpDropAlert.getGainedAmount()) {
+                this.fireAlert(xpDropAlert, statChanged.getSkill().getName());
+            }
+        }
     }
     //endregion
 
@@ -189,56 +318,129 @@ public class EventHandler {
         // Ignore everything but inventory
         if (itemContainerChanged.getItemContainer().getId() != InventoryID.INVENTORY.getId())
             return;
-        this.alertManager.getAllEnabledAlertsOfType(InventoryAlert.class)
-            .forEach(inventoryAlert -> {
-                Item[] items = itemContainerChanged.getItemContainer().getItems();
-                long itemCount = Arrays.stream(items).filter(item -> item.getId() > -1).count();
-                if (inventoryAlert.getInventoryAlertType() == InventoryAlert.InventoryAlertType.FULL && itemCount == 28) {
-                    this.fireAlert(inventoryAlert, inventoryAlert.getInventoryAlertType().getName());
-                } else if (inventoryAlert.getInventoryAlertType() == InventoryAlert.InventoryAlertType.EMPTY && itemCount == 0) {
-                    this.fireAlert(inventoryAlert, inventoryAlert.getInventoryAlertType().getName());
-                } else if (inventoryAlert.getInventoryAlertType() == InventoryAlert.InventoryAlertType.ITEM) {
-                    Map<Integer, Integer> allItems = new HashMap<>();
-                    Arrays.stream(items)
-                        .forEach(item -> allItems.merge(item.getId(), item.getQuantity(), Integer::sum));
-                    allItems.entrySet().stream()
-                        .filter(itemWithCount -> inventoryAlert.getItemQuantity() == 0 || itemWithCount.getValue() == inventoryAlert.getItemQuantity())
-                        .map(itemWithCount -> this.matchPattern(inventoryAlert, this.itemManager.getItemComposition(itemWithCount.getKey()).getName()))
-                        .filter(Objects::nonNull)
-                        .findFirst()
-                        .ifPresent(groups -> this.fireAlert(inventoryAlert, groups));
+        // Always kept up to date so that a new alert only sees changes from after it was made
+        this.inventoryDelta.update(itemContainerChanged.getItemContainer().getItems());
+
+        for (Alert alert : this.alertManager.getSnapshot().getAlerts(TriggerType.INVENTORY)) {
+            InventoryAlert inventoryAlert = (InventoryAlert) alert;
+            if (inventoryAlert.getInventoryAlertType() == InventoryAlert.InventoryAlertType.FULL && this.inventoryDelta.getOccupiedSlots() == 28) {
+                this.fireAlert(inventoryAlert, inventoryAlert.getInventoryAlertType().getName());
+            } else if (inventoryAlert.getInventoryAlertType() == InventoryAlert.InventoryAlertType.EMPTY && this.inventoryDelta.getOccupiedSlots() == 0) {
+                this.fireAlert(inventoryAlert, inventoryAlert.getInventoryAlertType().getName());
+            } else if (inventoryAlert.getInventoryAlertType() == InventoryAlert.InventoryAlertType.ITEM) {
+                // Only the items whose count changed can have just hit the alert's count
+                for (int i = 0; i < this.inventoryDelta.getChangedCount(); i++) {
+                    int itemId = this.inventoryDelta.getChangedId(i);
+                    int quantity = this.inventoryDelta.getQuantity(itemId);
+                    if (quantity == 0 || (inventoryAlert.getItemQuantity() != 0 && quantity != inventoryAlert.getItemQuantity())) {
+                        continue;
+                    }
+
+                    String[] groups = this.matchPattern(inventoryAlert, this.spawnNameCache.getItemName(itemId));
+                    if (groups != null) {
+                        this.fireAlert(inventoryAlert, groups);
+                        break;
+                    }
                 }
-            });
+            }
+        }
     }
     //endregion
 
     //region Spawned
-    @Subscribe
     private void onItemSpawned(ItemSpawned itemSpawned) {
-        ItemComposition comp = this.itemManager.getItemComposition(itemSpawned.getItem().getId());
-        this.onSpawned(comp.getName(), SPAWNED, ITEM);
+        this.onSpawned(this.spawnNameCache.getItemName(itemSpawned.getItem().getId()), SPAWNED, ITEM);
     }
-    @Subscribe
     private void onItemDespawned(ItemDespawned itemDespawned) {
-        ItemComposition comp = this.itemManager.getItemComposition(itemDespawned.getItem().getId());
-        this.onSpawned(comp.getName(), DESPAWNED, ITEM);
+        this.onSpawned(this.spawnNameCache.getItemName(itemDespawned.getItem().getId()), DESPAWNED, ITEM);
     }
-    @Subscribe
     private void onNpcSpawned(NpcSpawned npcSpawned) {
         this.onActorSpawned(npcSpawned.getNpc(), NPC);
     }
-    @Subscribe
     private void onNpcDespawned(NpcDespawned npcDespawned) {
         this.onActorDespawned(npcDespawned.getNpc(), NPC);
     }
-    @Subscribe
     private void onPlayerSpawned(PlayerSpawned playerSpawned) {
         this.onActorSpawned(playerSpawned.getPlayer(), PLAYER);
     }
-    @Subscribe
     private void onPlayerDespawned(PlayerDespawned playerDespawned) {
         this.onActorDespawned(playerDespawned.getPlayer(), PLAYER);
     }
+
+    private void onSnapshotChanged(AlertSnapshot snapshot) {
+        this.debounceStore.retain(snapshot);
+        // A changed pattern gets a fresh start, but other edits, which save on every key typed, don't reset the strikes
+        this.regexBudgetStrikes.entrySet().removeIf(entry -> !snapshot.contains(entry.getKey()) || entry.getValue().isStale((RegexMatcher) entry.getKey()));
+        this.updateSpawnedSubscriptions(snapshot);
+    }
+
+    private void updateSpawnedSubscriptions(AlertSnapshot snapshot) {
+        Map<SpawnedAlert.SpawnedDespawned, Set<SpawnedAlert.SpawnedType>> wanted = new EnumMap<>(SpawnedAlert.SpawnedDespawned.class);
+        for (SpawnedAlert.SpawnedDespawned mode : SpawnedAlert.SpawnedDespawned.values()) {
+            wanted.put(mode, EnumSet.noneOf(SpawnedAlert.SpawnedType.class));
+        }
+        for (Alert alert : snapshot.getAlerts(TriggerType.SPAWNED_OBJECT)) {
+            SpawnedAlert spawnedAlert = (SpawnedAlert) alert;
+            wanted.get(spawnedAlert.getSpawnedDespawned()).add(spawnedAlert.getSpawnedType());
+        }
+
+        synchronized (this.spawnedSubscribers) {
+            if (!this.started) {
+                return;
+            }
+
+            wanted.forEach((mode, types) -> {
+                Map<SpawnedAlert.SpawnedType, EventBus.Subscriber> subscribers = this.spawnedSubscribers.computeIfAbsent(mode, m -> new EnumMap<>(SpawnedAlert.SpawnedType.class));
+                for (SpawnedAlert.SpawnedType type : SpawnedAlert.SpawnedType.values()) {
+                    EventBus.Subscriber subscriber = subscribers.get(type);
+                    if (types.contains(type) && subscriber == null) {
+                        log.debug("Subscribing to {} {}", type.getName(), mode.getName());
+                        subscribers.put(type, this.subscribeSpawned(type, mode));
+                    } else if (!types.contains(type) && subscriber != null) {
+                        log.debug("Unsubscribing from {} {}", type.getName(), mode.getName());
+                        this.eventBus.unregister(subscriber);
+                        subscribers.remove(type);
+                    }
+                }
+            });
+        }
+    }
+
+    private EventBus.Subscriber subscribeSpawned(SpawnedAlert.SpawnedType type, SpawnedAlert.SpawnedDespawned mode) {
+        boolean spawned = mode == SPAWNED;
+        switch (type) {
+            case DECORATIVE_OBJECT:
+                return spawned
+                    ? this.eventBus.register(DecorativeObjectSpawned.class, this::onDecorativeObjectSpawned, 0)
+                    : this.eventBus.register(DecorativeObjectDespawned.class, this::onDecorativeObjectDespawned, 0);
+            case GAME_OBJECT:
+                return spawned
+                    ? this.eventBus.register(GameObjectSpawned.class, this::onGameObjectSpawned, 0)
+                    : this.eventBus.register(GameObjectDespawned.class, this::onGameObjectDespawned, 0);
+            case GROUND_OBJECT:
+                return spawned
+                    ? this.eventBus.register(GroundObjectSpawned.class, this::onGroundObjectSpawned, 0)
+                    : this.eventBus.register(GroundObjectDespawned.class, this::onGroundObjectDespawned, 0);
+            case ITEM:
+                return spawned
+                    ? this.eventBus.register(ItemSpawned.class, this::onItemSpawned, 0)
+                    : this.eventBus.register(ItemDespawned.class, this::onItemDespawned, 0);
+            case NPC:
+                return spawned
+                    ? this.eventBus.register(NpcSpawned.class, this::onNpcSpawned, 0)
+                    : this.eventBus.register(NpcDespawned.class, this::onNpcDespawned, 0);
+            case PLAYER:
+                return spawned
+                    ? this.eventBus.register(PlayerSpawned.class, this::onPlayerSpawned, 0)
+                    : this.eventBus.register(PlayerDespawned.class, this::onPlayerDespawned, 0);
+            case WALL_OBJECT:
+            default:
+                return spawned
+                    ? this.eventBus.register(WallObjectSpawned.class, this::onWallObjectSpawned, 0)
+                    : this.eventBus.register(WallObjectDespawned.class, this::onWallObjectDespawned, 0);
+        }
+    }
+
     private void onActorSpawned(Actor actor, SpawnedAlert.SpawnedType type) {
         this.onSpawned(actor.getName(), SPAWNED, type);
     }
@@ -246,75 +448,208 @@ public class EventHandler {
         this.onSpawned(actor.getName(), DESPAWNED, type);
     }
 
-    @Subscribe
     private void onGroundObjectSpawned(GroundObjectSpawned groundObjectSpawned) {
         this.onTileObjectSpawned(groundObjectSpawned.getGroundObject(), SPAWNED, GROUND_OBJECT);
     }
-    @Subscribe
     private void onGroundObjectDespawned(GroundObjectDespawned groundObjectDespawned) {
         this.onTileObjectSpawned(groundObjectDespawned.getGroundObject(), DESPAWNED, GROUND_OBJECT);
     }
 
-    @Subscribe
     private void onDecorativeObjectSpawned(DecorativeObjectSpawned decorativeObjectSpawned) {
         this.onTileObjectSpawned(decorativeObjectSpawned.getDecorativeObject(), SPAWNED, DECORATIVE_OBJECT);
     }
-    @Subscribe
     private void onDecorativeObjectDespawned(DecorativeObjectDespawned decorativeObjectDespawned) {
         this.onTileObjectSpawned(decorativeObjectDespawned.getDecorativeObject(), DESPAWNED, DECORATIVE_OBJECT);
     }
 
-    @Subscribe
     private void onGameObjectSpawned(GameObjectSpawned gameObjectSpawned) {
         this.onTileObjectSpawned(gameObjectSpawned.getGameObject(), SPAWNED, GAME_OBJECT);
     }
-    @Subscribe
     private void onGameObjectDespawned(GameObjectDespawned gameObjectDespawned) {
         this.onTileObjectSpawned(gameObjectDespawned.getGameObject(), DESPAWNED, GAME_OBJECT);
     }
 
-    @Subscribe
     private void onWallObjectSpawned(WallObjectSpawned wallObjectSpawned) {
         this.onTileObjectSpawned(wallObjectSpawned.getWallObject(), SPAWNED, WALL_OBJECT);
     }
-    @Subscribe
     private void onWallObjectDespawned(WallObjectDespawned wallObjectDespawned) {
         this.onTileObjectSpawned(wallObjectDespawned.getWallObject(), DESPAWNED, WALL_OBJECT);
     }
 
     private void onTileObjectSpawned(TileObject tileObject, SpawnedAlert.SpawnedDespawned mode, SpawnedAlert.SpawnedType type) {
-        final ObjectComposition comp = this.client.getObjectDefinition(tileObject.getId());
-        final ObjectComposition impostor = comp.getImpostorIds() != null ? comp.getImpostor() : comp;
-        if (impostor == null) {
+        final String name = this.spawnNameCache.getObjectName(tileObject.getId());
+        if (name == null) {
             return;
         }
-        this.onSpawned(impostor.getName(), mode, type);
+        this.onSpawned(name, mode, type);
+    }
+
+    @Subscribe
+    private void onVarbitChanged(VarbitChanged varbitChanged) {
+        this.spawnNameCache.onVarbitChanged();
     }
 
     private void onSpawned(String name, SpawnedAlert.SpawnedDespawned mode, SpawnedAlert.SpawnedType type) {
+        if (this.batchSpawns) {
+            this.pendingSpawns.computeIfAbsent(mode, m -> new EnumMap<>(SpawnedAlert.SpawnedType.class))
+                .computeIfAbsent(type, t -> new LinkedHashSet<>())
+                .add(name);
+            this.hasPendingSpawns = true;
+            return;
+        }
+
+        this.submit(MatchEvent.spawned(name, mode, type));
+    }
+
+    private MatchResult[] matchSpawned(String name, SpawnedAlert.SpawnedDespawned mode, SpawnedAlert.SpawnedType type) {
+        AlertSnapshot snapshot = this.alertManager.getSnapshot();
+        if (snapshot.getAlerts(TriggerType.SPAWNED_OBJECT).length == 0) {
+            return MatchMemo.NO_MATCHES;
+        }
+
+        // Memoized on the name as given so that repeated names skip removing the formatting as well
+        MatchMemo memo = this.spawnedMemos.get(mode).get(type);
+        return memo.get(snapshot.getGeneration(), name, input -> this.findSpawnedMatches(snapshot, mode, type, input));
+    }
+
+    @Subscribe
+    private void onSceneLoading(GameStateChanged gameStateChanged) {
+        if (gameStateChanged.getGameState() == GameState.LOADING) {
+            this.sceneLoading = true;
+        }
+    }
+
+    @Subscribe
+    private void onGameTick(GameTick gameTick) {
+        if (this.hasPendingSpawns) {
+            if (this.sceneLoading) {
+                this.dropReloadedSpawns();
+            }
+
+            List<MatchEvent> spawns = new ArrayList<>();
+            this.pendingSpawns.forEach((mode, namesByType) -> namesByType.forEach((type, names) -> {
+                for (String name : names) {
+                    spawns.add(MatchEvent.spawned(name, mode, type));
+                }
+                names.clear();
+            }));
+            this.hasPendingSpawns = false;
+            if (!spawns.isEmpty()) {
+                this.submit(MatchEvent.spawnBatch(spawns.toArray(new MatchEvent[0])));
+            }
+        }
+        this.sceneLoading = false;
+    }
+
+    /**
+     * Reloading the scene despawns everything and spawns it again, so a name that did both while loading didn't
+     * really change
+     */
+    private void dropReloadedSpawns() {
+        Map<SpawnedAlert.SpawnedType, Set<String>> spawned = this.pendingSpawns.get(SPAWNED);
+        Map<SpawnedAlert.SpawnedType, Set<String>> despawned = this.pendingSpawns.get(DESPAWNED);
+        if (spawned == null || despawned == null) {
+            return;
+        }
+
+        spawned.forEach((type, names) -> {
+            Set<String> despawnedNames = despawned.get(type);
+            if (despawnedNames != null) {
+                names.removeIf(despawnedNames::remove);
+            }
+        });
+    }
+
+    private MatchResult[] findSpawnedMatches(AlertSnapshot snapshot, SpawnedAlert.SpawnedDespawned mode, SpawnedAlert.SpawnedType type, String name) {
         String unformattedName = Text.removeFormattingTags(name);
-        this.alertManager.getAllEnabledAlertsOfType(SpawnedAlert.class)
-            .filter(spawnedAlert -> spawnedAlert.getSpawnedDespawned() == mode)
-            .filter(spawnedAlert -> spawnedAlert.getSpawnedType() == type)
-            .forEach(spawnedAlert -> {
-                String[] groups = this.matchPattern(spawnedAlert, unformattedName);
-                if (groups == null) return;
-
-                this.fireAlert(spawnedAlert, groups);
-            });
+        List<MatchResult> matches = new ArrayList<>();
+        for (Alert alert : snapshot.getAlerts(TriggerType.SPAWNED_OBJECT)) {
+            SpawnedAlert spawnedAlert = (SpawnedAlert) alert;
+            if (spawnedAlert.getSpawnedDespawned() == mode && spawnedAlert.getSpawnedType() == type) {
+                this.addMatch(matches, spawnedAlert, unformattedName);
+            }
+        }
+        return toArray(matches);
     }
     //endregion
 
+    private void matchAlerts(MatchMemo memo, TriggerType type, String input) {
+        AlertSnapshot snapshot = this.alertManager.getSnapshot();
+        for (MatchResult match : this.findMatches(snapshot, memo, type, input)) {
+            this.fireAlert(match.getAlert(), match.getGroups());
+        }
+    }
+
+    private MatchResult[] findMatches(AlertSnapshot snapshot, MatchMemo memo, TriggerType type, String input) {
+        if (snapshot.getAlerts(type).length == 0) {
+            return MatchMemo.NO_MATCHES;
+        }
+
+        return memo.get(snapshot.getGeneration(), input, in -> this.findMatches(snapshot, type, in));
+    }
+
+    /**
+     * Fires the matches of two trigger types, each already in list order, merged back into the order of the alert list
+     */
+    private void fireInListOrder(AlertSnapshot snapshot, MatchResult[] first, MatchResult[] second) {
+        int i = 0;
+        int j = 0;
+        while (i < first.length || j < second.length) {
+            MatchResult match;
+            if (j == second.length || (i < first.length && snapshot.getListIndex(first[i].getAlert()) < snapshot.getListIndex(second[j].getAlert()))) {
+                match = first[i++];
+            } else {
+                match = second[j++];
+            }
+            this.fireAlert(match.getAlert(), match.getGroups());
+        }
+    }
+
+    private MatchResult[] findMatches(AlertSnapshot snapshot, TriggerType type, String input) {
+        Alert[] alerts = snapshot.getAlerts(type);
+        AlertPrefilter prefilter = snapshot.getPrefilter(type);
+        List<MatchResult> matches = new ArrayList<>();
+        if (prefilter == null) {
+            for (Alert alert : alerts) {
+                this.addMatch(matches, alert, input);
+            }
+        } else {
+            BitSet candidates = prefilter.findCandidates(input);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                this.addMatch(matches, alerts[i], input);
+            }
+        }
+        return toArray(matches);
+    }
+
+    private void addMatch(List<MatchResult> matches, Alert alert, String input) {
+        String[] groups = this.matchPattern((RegexMatcher) alert, input);
+        if (groups == null) return;
+
+        matches.add(new MatchResult(alert, groups));
+    }
+
+    private static MatchResult[] toArray(List<MatchResult> matches) {
+        return matches.isEmpty() ? MatchMemo.NO_MATCHES : matches.toArray(MatchMemo.NO_MATCHES);
+    }
+
     private String[] matchPattern(RegexMatcher regexMatcher, String input) {
-        String regex = regexMatcher.isRegexEnabled() ? regexMatcher.getPattern() : Util.createRegexFromGlob(regexMatcher.getPattern());
-        Matcher matcher = Pattern.compile(regex, regexMatcher.isRegexEnabled() ? 0 : Pattern.CASE_INSENSITIVE).matcher(input);
-        if (!matcher.matches()) return null;
+        try {
+            return regexMatcher.getCompiledPattern().match(input, this.regexStepBudget);
+        } catch (RegexBudgetExceededException e) {
+            this.onRegexBudgetExceeded((Alert) regexMatcher, input);
+            return null;
+        }
+    }
 
-        String[] groups = new String[matcher.groupCount()];
-        for (int i = 0; i < matcher.groupCount(); i++) {
-            groups[i] = matcher.group(i+1);
+    private void onRegexBudgetExceeded(Alert alert, String input) {
+        RegexMatcher regexMatcher = (RegexMatcher) alert;
+        int strikes = this.regexBudgetStrikes.compute(alert, (a, existing) -> existing == null || existing.isStale(regexMatcher) ? new RegexBudgetStrikes(regexMatcher) : existing)
+            .count.incrementAndGet();
+        log.warn("Alert {} took too long to match \"{}\" ({}/{})", alert.getName(), input, strikes, REGEX_BUDGET_STRIKES);
+        if (strikes == REGEX_BUDGET_STRIKES) {
+            SwingUtilities.invokeLater(() -> this.alertManager.disableAlert(alert, "Disabled because its pattern took too long to match. Simplify the pattern and enable it again."));
         }
-        return groups;
     }
 
     private void fireAlert(Alert alert, String triggerValue) {
@@ -322,27 +657,32 @@ public class EventHandler {
     }
 
     private void fireAlert(Alert alert, String[] triggerValues) {
-        // Don't fire if it is disabled
-        if (!alert.isEnabled()) return;
-
-        List<AlertGroup> ancestors = alert.getAncestors();
-        // Don't fire if any of the ancestors are disabled
-        if (ancestors != null && !ancestors.stream().allMatch(Alert::isEnabled)) {
-            return;
-        }
-
-        Alert alertToDebounceWith = ancestors == null ? alert : Stream.concat(ancestors.stream(), Stream.of(alert))
-            .filter(ancestor -> ancestor.getDebounceTime() > 0)
-            .max(Comparator.comparingInt(Alert::getDebounceTime))
-            .orElse(alert);
+        // Alerts that were disabled, or are in a group that was, since they matched aren't in the snapshot anymore
+        Alert alertToDebounceWith = this.alertManager.getSnapshot().getDebounceOwner(alert);
+        if (alertToDebounceWith == null) return;
 
         // If the alert hasn't been fired yet, or has been enough time, set the last trigger time to now and fire.
-        if (!this.lastTriggered.containsKey(alertToDebounceWith) || Instant.now().compareTo(this.lastTriggered.get(alertToDebounceWith).plusMillis(alertToDebounceWith.getDebounceTime())) >= 0) {
+        if (this.debounceStore.tryFire(alertToDebounceWith)) {
             SwingUtilities.invokeLater(() -> {
                 this.historyPanelProvider.get().addEntry(alert, triggerValues);
             });
-            this.lastTriggered.put(alertToDebounceWith, Instant.now());
             alert.getNotifications().forEach(notification -> notification.fire(triggerValues));
         }
     }
+
+    private static class RegexBudgetStrikes {
+        // What the pattern was when it ran out of steps
+        private final String pattern;
+        private final boolean regexEnabled;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private RegexBudgetStrikes(RegexMatcher regexMatcher) {
+            this.pattern = regexMatcher.getPattern();
+            this.regexEnabled = regexMatcher.isRegexEnabled();
+        }
+
+        private boolean isStale(RegexMatcher regexMatcher) {
+            return !Objects.equals(this.pattern, regexMatcher.getPattern()) || this.regexEnabled != regexMatcher.isRegexEnabled();
+        }
+    }
 }
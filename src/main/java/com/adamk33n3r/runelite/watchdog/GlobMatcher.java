@@ -0,0 +1,262 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matches globs made of only literal text and {@code *} wildcards without going through java.util.regex. Matching
+ * gives the same result as the regex from {@link Util#createRegexFromGlob(String)} compiled with
+ * {@link java.util.regex.Pattern#CASE_INSENSITIVE}: case is only folded for ASCII and a wildcard doesn't match line
+ * terminators.
+ */
+final class GlobMatcher {
+    enum Kind {
+        EXACT,
+        PREFIX,
+        SUFFIX,
+        CONTAINS,
+        SEGMENTS,
+    }
+
+    private static final char[][] NO_SEGMENTS = new char[0][];
+
+    @Getter
+    private final Kind kind;
+    // Lower-cased literal text before the first wildcard, between the wildcards and after the last wildcard
+    private final char[] head;
+    private final char[][] middle;
+    private final char[] tail;
+
+    private GlobMatcher(Kind kind, char[] head, char[][] middle, char[] tail) {
+        this.kind = kind;
+        this.head = head;
+        this.middle = middle;
+        this.tail = tail;
+    }
+
+    /**
+     * @return the matcher for the glob, or null if it needs a regex because it uses character classes, groups,
+     * single character wildcards or regex escapes
+     */
+    @Nullable
+    static GlobMatcher compile(String glob) {
+        List<String> segments = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        boolean hasLineTerminator = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char ch = glob.charAt(i);
+            switch (ch) {
+                case '*':
+                    segments.add(segment.toString());
+                    segment.setLength(0);
+                    break;
+                case '\\':
+                    // A trailing backslash is an invalid regex, so let the regex report it
+                    if (++i >= glob.length()) {
+                        return null;
+                    }
+                    char next = glob.charAt(i);
+                    if (next == 'Q' || next == 'E') {
+                        // Util escapes these, so they are a literal backslash and letter
+                        segment.append('\\');
+                    } else if (Character.isLetterOrDigit(next) || Character.isSurrogate(next)) {
+                        // Things like \d and \1 mean something to the regex
+                        return null;
+                    }
+                    hasLineTerminator |= isLineTerminator(next);
+                    segment.append(next);
+                    break;
+                case '?':
+                case '[':
+                case ']':
+                case '{':
+                case '}':
+                    return null;
+                default:
+                    // The regex compares supplementary characters as code points
+                    if (Character.isSurrogate(ch)) {
+                        return null;
+                    }
+                    hasLineTerminator |= isLineTerminator(ch);
+                    segment.append(ch);
+            }
+        }
+        segments.add(segment.toString());
+
+        char[] head = lowerCase(segments.get(0));
+        if (segments.size() == 1) {
+            return new GlobMatcher(Kind.EXACT, head, NO_SEGMENTS, head);
+        }
+        // Wildcards never match line terminators, so only exact matches can handle literal ones without the regex
+        if (hasLineTerminator) {
+            return null;
+        }
+
+        char[] tail = lowerCase(segments.get(segments.size() - 1));
+        // Empty segments come from repeated wildcards and don't need to be matched
+        List<char[]> middle = new ArrayList<>();
+        for (String middleSegment : segments.subList(1, segments.size() - 1)) {
+            if (!middleSegment.isEmpty()) {
+                middle.add(lowerCase(middleSegment));
+            }
+        }
+
+        Kind kind;
+        if (middle.isEmpty()) {
+            if (head.length == 0 && tail.length == 0) {
+                kind = Kind.CONTAINS;
+            } else if (tail.length == 0) {
+                kind = Kind.PREFIX;
+            } else if (head.length == 0) {
+                kind = Kind.SUFFIX;
+            } else {
+                kind = Kind.SEGMENTS;
+            }
+        } else {
+            kind = middle.size() == 1 && head.length == 0 && tail.length == 0 ? Kind.CONTAINS : Kind.SEGMENTS;
+        }
+        return new GlobMatcher(kind, head, middle.toArray(NO_SEGMENTS), tail);
+    }
+
+    /**
+     * Finds the longest run of literal text that every match of the glob has to contain, even when the glob needs a
+     * regex. Text inside groups is skipped since it is only one of the alternatives.
+     *
+     * @return the lower-cased literal, or an empty string if there isn't one that is safe to rely on
+     */
+    static String requiredLiteral(String glob) {
+        String longest = "";
+        StringBuilder run = new StringBuilder();
+        int inGroup = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char ch = glob.charAt(i);
+            boolean literal = false;
+            switch (ch) {
+                case '[':
+                case ']':
+                    // Util turns braces and commas inside classes into group syntax, so give up instead of guessing
+                    return "";
+                case '{':
+                    inGroup++;
+                    break;
+                case '}':
+                    if (--inGroup < 0) {
+                        return "";
+                    }
+                    break;
+                case '*':
+                case '?':
+                    break;
+                case '\\':
+                    if (++i >= glob.length()) {
+                        return "";
+                    }
+                    char next = glob.charAt(i);
+                    boolean quote = next == 'Q' || next == 'E';
+                    if (quote && inGroup == 0) {
+                        run.append('\\');
+                    }
+                    // Things like \d are regex specials, everything else is a literal
+                    literal = quote || !Character.isLetterOrDigit(next);
+                    ch = next;
+                    break;
+                default:
+                    literal = true;
+            }
+
+            if (literal && inGroup == 0) {
+                run.append(toLowerCase(ch));
+            } else {
+                if (run.length() > longest.length()) {
+                    longest = run.toString();
+                }
+                run.setLength(0);
+            }
+        }
+        if (inGroup != 0) {
+            return "";
+        }
+        return run.length() > longest.length() ? run.toString() : longest;
+    }
+
+    boolean matches(String input) {
+        int length = input.length();
+        if (this.kind == Kind.EXACT) {
+            return length == this.head.length && regionMatches(input, 0, this.head);
+        }
+        if (hasLineTerminator(input)) {
+            return false;
+        }
+
+        switch (this.kind) {
+            case PREFIX:
+                return length >= this.head.length && regionMatches(input, 0, this.head);
+            case SUFFIX:
+                return length >= this.tail.length && regionMatches(input, length - this.tail.length, this.tail);
+            case CONTAINS:
+                return this.middle.length == 0 || indexOf(input, 0, length, this.middle[0]) >= 0;
+            default:
+                int start = this.head.length;
+                int end = length - this.tail.length;
+                if (end < start || !regionMatches(input, 0, this.head) || !regionMatches(input, end, this.tail)) {
+                    return false;
+                }
+                // Taking the leftmost match of each segment leaves the most room for the rest
+                for (char[] segment : this.middle) {
+                    int found = indexOf(input, start, end, segment);
+                    if (found < 0) {
+                        return false;
+                    }
+                    start = found + segment.length;
+                }
+                return true;
+        }
+    }
+
+    private static int indexOf(String input, int from, int to, char[] literal) {
+        for (int i = from; i <= to - literal.length; i++) {
+            if (regionMatches(input, i, literal)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(String input, int offset, char[] literal) {
+        for (int i = 0; i < literal.length; i++) {
+            char ch = input.charAt(offset + i);
+            if (literal[i] != ch && literal[i] != toLowerCase(ch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasLineTerminator(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (isLineTerminator(input.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLineTerminator(char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    private static char[] lowerCase(String literal) {
+        char[] chars = literal.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = toLowerCase(chars[i]);
+        }
+        return chars;
+    }
+
+    private static char toLowerCase(char ch) {
+        return ch >= 'A' && ch <= 'Z' ? (char) (ch + ('a' - 'A')) : ch;
+    }
+}
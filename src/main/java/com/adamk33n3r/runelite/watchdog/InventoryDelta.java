@@ -0,0 +1,119 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import net.runelite.api.Item;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Diffs each inventory update against the previous one, so alerts only have to look at the item ids whose total
+ * quantity changed. Quantities are kept in arrays indexed by item id. Only used from the client thread.
+ */
+public class InventoryDelta {
+    // Total quantity of each item id as of the last update
+    private int[] quantities = new int[0];
+    // Scratch space for totalling the new quantities, all zero between updates
+    private int[] newQuantities = new int[0];
+
+    private int[] heldIds = new int[0];
+    private int heldCount = 0;
+    private int[] nextHeldIds = new int[0];
+
+    private int[] changedIds = new int[0];
+    @Getter
+    private int changedCount = 0;
+
+    @Getter
+    private int occupiedSlots = 0;
+
+    public void update(Item[] items) {
+        int maxDistinct = items.length + this.heldCount;
+        if (this.changedIds.length < maxDistinct) {
+            this.changedIds = new int[maxDistinct];
+        }
+        if (this.nextHeldIds.length < items.length) {
+            this.nextHeldIds = new int[items.length];
+        }
+
+        int nextHeldCount = 0;
+        this.occupiedSlots = 0;
+        for (Item item : items) {
+            int id = item.getId();
+            if (id < 0) {
+                continue;
+            }
+
+            this.occupiedSlots++;
+            if (item.getQuantity() <= 0) {
+                continue;
+            }
+
+            this.ensureCapacity(id);
+            if (this.newQuantities[id] == 0) {
+                this.nextHeldIds[nextHeldCount++] = id;
+            }
+            this.newQuantities[id] += item.getQuantity();
+        }
+
+        this.changedCount = 0;
+        // Items that are gone entirely
+        for (int i = 0; i < this.heldCount; i++) {
+            int id = this.heldIds[i];
+            if (this.newQuantities[id] == 0) {
+                this.changedIds[this.changedCount++] = id;
+            }
+        }
+        for (int i = 0; i < nextHeldCount; i++) {
+            int id = this.nextHeldIds[i];
+            if (this.newQuantities[id] != this.quantities[id]) {
+                this.changedIds[this.changedCount++] = id;
+            }
+        }
+
+        for (int i = 0; i < this.heldCount; i++) {
+            this.quantities[this.heldIds[i]] = 0;
+        }
+        for (int i = 0; i < nextHeldCount; i++) {
+            int id = this.nextHeldIds[i];
+            this.quantities[id] = this.newQuantities[id];
+            this.newQuantities[id] = 0;
+        }
+
+        int[] swap = this.heldIds;
+        this.heldIds = this.nextHeldIds;
+        this.nextHeldIds = swap;
+        this.heldCount = nextHeldCount;
+    }
+
+    /**
+     * Forgets the previous inventory, for when the next update is from a different session, like after a relog
+     */
+    public void reset() {
+        for (int i = 0; i < this.heldCount; i++) {
+            this.quantities[this.heldIds[i]] = 0;
+        }
+        this.heldCount = 0;
+        this.changedCount = 0;
+        this.occupiedSlots = 0;
+    }
+
+    public int getChangedId(int index) {
+        return this.changedIds[index];
+    }
+
+    /**
+     * @return the total quantity of the item as of the last update
+     */
+    public int getQuantity(int id) {
+        return id >= 0 && id < this.quantities.length ? this.quantities[id] : 0;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id >= this.quantities.length) {
+            int size = Math.max(id + 1, this.quantities.length * 2);
+            this.quantities = Arrays.copyOf(this.quantities, size);
+            this.newQuantities = Arrays.copyOf(this.newQuantities, size);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.SpawnedAlert;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.annotation.Nullable;
+
+/**
+ * What the client thread captures from an event for alerts to be matched against it on another thread. Everything
+ * that needs the client, like looking up names, is already done.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MatchEvent {
+    public enum Kind {
+        GAME_MESSAGE,
+        PLAYER_CHAT,
+        NOTIFICATION_FIRED,
+        SPAWNED,
+        // A game tick's batched spawns, each alert fires at most once for the whole batch
+        SPAWN_BATCH,
+    }
+
+    private final Kind kind;
+    // The unformatted message, or the spawned name
+    @Nullable
+    private final String input;
+    @Nullable
+    private final SpawnedAlert.SpawnedDespawned mode;
+    @Nullable
+    private final SpawnedAlert.SpawnedType spawnedType;
+    @Nullable
+    private final MatchEvent[] batch;
+
+    public static MatchEvent message(Kind kind, String input) {
+        return new MatchEvent(kind, input, null, null, null);
+    }
+
+    public static MatchEvent spawned(String name, SpawnedAlert.SpawnedDespawned mode, SpawnedAlert.SpawnedType type) {
+        return new MatchEvent(Kind.SPAWNED, name, mode, type, null);
+    }
+
+    public static MatchEvent spawnBatch(MatchEvent[] spawns) {
+        return new MatchEvent(Kind.SPAWN_BATCH, null, null, null, spawns);
+    }
+}
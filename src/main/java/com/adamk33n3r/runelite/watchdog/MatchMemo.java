@@ -0,0 +1,65 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Remembers which alerts matched an input, so inputs that repeat a lot, like spawn names, only get matched once.
+ * The memo is cleared whenever the {@link AlertSnapshot} generation changes. It is normally only used from one
+ * thread, but can briefly be shared while matching moves on or off the client thread, so lookups are synchronized.
+ */
+@Slf4j
+public class MatchMemo {
+    public static final MatchResult[] NO_MATCHES = new MatchResult[0];
+    private static final int LOG_EVERY = 10_000;
+
+    private final String name;
+    private final Map<String, MatchResult[]> results;
+    private long generation = -1;
+
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+
+    public MatchMemo(String name, int maxSize) {
+        this.name = name;
+        // Access ordered so that the least recently used input is the one that gets evicted
+        this.results = new LinkedHashMap<String, MatchResult[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MatchResult[]> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param generation the generation of the snapshot that the matcher uses
+     * @param matcher called to match the input when it isn't memoized yet
+     * @return the alerts that match the input, in firing order
+     */
+    public synchronized MatchResult[] get(long generation, String input, Function<String, MatchResult[]> matcher) {
+        if (generation != this.generation) {
+            this.results.clear();
+            this.generation = generation;
+        }
+
+        MatchResult[] matches = this.results.get(input);
+        if (matches != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+            matches = matcher.apply(input);
+            this.results.put(input, matches);
+        }
+
+        if ((this.hits + this.misses) % LOG_EVERY == 0) {
+            log.debug("{} match memo: {} hits, {} misses, {} cached", this.name, this.hits, this.misses, this.results.size());
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,100 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hands events from the threads that post them to a single matching thread through an {@link MpscRing}. Events
+ * are handled one at a time in the order they were published. When the ring is full new events are dropped and
+ * counted instead of blocking the client thread.
+ */
+@Slf4j
+public class MatchPipeline<T> {
+    // Bounds how long a missed wake up can delay an event
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final MpscRing<T> ring;
+    private final Consumer<T> handler;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean waiting = false;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public MatchPipeline(String name, int capacity, Consumer<T> handler) {
+        this.ring = new MpscRing<>(capacity);
+        this.handler = handler;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * @return false if the event was dropped because the ring is full
+     */
+    public boolean publish(T event) {
+        if (!this.ring.offer(event)) {
+            long overflowed = this.overflowed.incrementAndGet();
+            if (overflowed % 1000 == 1) {
+                log.warn("{} is falling behind, {} events have been dropped", this.thread.getName(), overflowed);
+            }
+            return false;
+        }
+
+        this.published.incrementAndGet();
+        if (this.waiting) {
+            LockSupport.unpark(this.thread);
+        }
+        return true;
+    }
+
+    /**
+     * Stops taking new events once the ones already published have been handled
+     */
+    public void stop() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+    }
+
+    public long getPublishedCount() {
+        return this.published.get();
+    }
+
+    public long getOverflowCount() {
+        return this.overflowed.get();
+    }
+
+    public int getQueueDepth() {
+        return this.ring.size();
+    }
+
+    private void run() {
+        while (true) {
+            T event = this.ring.poll();
+            if (event != null) {
+                try {
+                    this.handler.accept(event);
+                } catch (Exception e) {
+                    log.error("Error matching event", e);
+                }
+                continue;
+            }
+
+            if (!this.running) {
+                return;
+            }
+
+            this.waiting = true;
+            // Check again now that producers can see we're waiting, so a publish in between isn't missed
+            if (this.ring.size() == 0) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            this.waiting = false;
+        }
+    }
+}
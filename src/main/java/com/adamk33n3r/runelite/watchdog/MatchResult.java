@@ -0,0 +1,12 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+
+import lombok.*;
+
+@Getter
+@RequiredArgsConstructor
+public class MatchResult {
+    private final Alert alert;
+    private final String[] groups;
+}
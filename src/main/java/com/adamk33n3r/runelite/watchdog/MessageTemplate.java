@@ -0,0 +1,83 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A notification message split into literal text and <code>$1</code> to <code>$9</code> placeholders for the
+ * alert's trigger values, so filling it in is a single pass. Placeholders past the number of trigger values are
+ * left as they are, and trigger values are inserted as plain text.
+ */
+public class MessageTemplate {
+    private static final int[] NO_PLACEHOLDERS = new int[0];
+
+    private final String text;
+    // One more literal than placeholders, the literal before each placeholder and then the rest of the text
+    private final String[] literals;
+    // The trigger value index of each placeholder
+    private final int[] placeholders;
+
+    private MessageTemplate(String text, String[] literals, int[] placeholders) {
+        this.text = text;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static MessageTemplate parse(String text) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+        int literalStart = 0;
+        for (int i = 0; i < text.length() - 1; i++) {
+            char next = text.charAt(i + 1);
+            if (text.charAt(i) == '$' && next >= '1' && next <= '9') {
+                literals.add(text.substring(literalStart, i));
+                placeholders.add(next - '1');
+                literalStart = i + 2;
+                i++;
+            }
+        }
+
+        if (placeholders.isEmpty()) {
+            return new MessageTemplate(text, null, NO_PLACEHOLDERS);
+        }
+
+        literals.add(text.substring(literalStart));
+        return new MessageTemplate(
+            text,
+            literals.toArray(new String[0]),
+            placeholders.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @return true if this template was parsed from this exact string
+     */
+    public boolean isFor(String text) {
+        return this.text == text;
+    }
+
+    public boolean hasPlaceholders() {
+        return this.placeholders.length > 0;
+    }
+
+    public String render(String[] triggerValues) {
+        if (this.placeholders.length == 0) {
+            return this.text;
+        }
+
+        StringBuilder sb = new StringBuilder(this.text.length() + 16);
+        for (int i = 0; i < this.placeholders.length; i++) {
+            sb.append(this.literals[i]);
+            int index = this.placeholders[i];
+            if (index < triggerValues.length) {
+                // Optional groups that didn't take part in the match are null
+                if (triggerValues[index] != null) {
+                    sb.append(triggerValues[index]);
+                }
+            } else {
+                sb.append('$').append(index + 1);
+            }
+        }
+        sb.append(this.literals[this.placeholders.length]);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring buffer for any number of producers and a single consumer. Each slot has a sequence
+ * number that says whether it is free for the producer claiming that position or filled for the consumer, so
+ * elements come out in the order their positions were claimed.
+ */
+public class MpscRing<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only touched by the consumer
+    private long head = 0;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public MpscRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the ring is full
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = this.tail.get();
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - position;
+            if (difference < 0) {
+                return false;
+            }
+            if (difference == 0 && this.tail.compareAndSet(position, position + 1)) {
+                this.elements.lazySet(index, element);
+                // Publishes the element to the consumer
+                this.sequences.set(index, position + 1);
+                return true;
+            }
+            // Another producer claimed this position first
+        }
+    }
+
+    /**
+     * Only call from the consumer thread
+     *
+     * @return the next element, or null if the ring is empty
+     */
+    @Nullable
+    public T poll() {
+        int index = (int) this.head & this.mask;
+        if (this.sequences.get(index) != this.head + 1) {
+            return null;
+        }
+
+        T element = this.elements.get(index);
+        this.elements.lazySet(index, null);
+        // Frees the slot for the producer that wraps around to it
+        this.sequences.set(index, this.head + this.mask + 1);
+        this.head++;
+        return element;
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * @return roughly how many elements are waiting, exact only when called from the consumer
+     */
+    public int size() {
+        return (int) Math.max(0, this.tail.get() - this.head);
+    }
+}
@@ -0,0 +1,181 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Singleton;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs notifications on a small set of bounded worker pools instead of a new thread per notification. Work that can
+ * block for a while, like downloading TTS, gets its own lane so it can't hold up the cheap notifications. When a lane
+ * falls behind, the oldest queued notification is dropped. Also owns the scheduler used for sound timing.
+ */
+@Slf4j
+@Singleton
+public class NotificationDispatcher {
+    // How often each lane logs its stats, in fired notifications
+    private static final int LOG_EVERY = 100;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Lane {
+        FAST("fast", 2, 256),
+        BLOCKING("blocking", 2, 64);
+
+        private final String name;
+        private final int threads;
+        private final int queueSize;
+    }
+
+    private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+    private final Map<Lane, LaneStats> stats = new EnumMap<>(Lane.class);
+    @Getter
+    private ScheduledExecutorService scheduler;
+
+    public NotificationDispatcher() {
+        for (Lane lane : Lane.values()) {
+            this.stats.put(lane, new LaneStats());
+        }
+    }
+
+    public synchronized void startUp() {
+        if (this.scheduler != null) {
+            return;
+        }
+
+        for (Lane lane : Lane.values()) {
+            LaneStats laneStats = this.stats.get(lane);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                lane.threads,
+                lane.threads,
+                30,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(lane.queueSize),
+                threadFactory("watchdog-notification-" + lane.name),
+                (runnable, pool) -> {
+                    log.debug("The {} lane is full, dropping its oldest notification, {} dropped so far", lane.name, laneStats.dropped.incrementAndGet());
+                    new ThreadPoolExecutor.DiscardOldestPolicy().rejectedExecution(runnable, pool);
+                }
+            );
+            executor.allowCoreThreadTimeOut(true);
+            this.executors.put(lane, executor);
+        }
+        this.scheduler = Executors.newScheduledThreadPool(2, threadFactory("watchdog-scheduler"));
+    }
+
+    public synchronized void shutDown() {
+        if (this.scheduler == null) {
+            return;
+        }
+
+        this.executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+        this.executors.clear();
+        this.scheduler.shutdownNow();
+        this.scheduler = null;
+    }
+
+    /**
+     * Queues the work on the lane, or drops it if the dispatcher isn't running
+     */
+    public void dispatch(Lane lane, Runnable work) {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executors.get(lane);
+        }
+        if (executor == null) {
+            log.debug("Dropping notification, the dispatcher isn't running");
+            return;
+        }
+
+        LaneStats laneStats = this.stats.get(lane);
+        long queuedAt = System.nanoTime();
+        executor.execute(() -> {
+            try {
+                work.run();
+            } catch (Exception e) {
+                log.error("Error firing notification", e);
+            } finally {
+                if (laneStats.record(System.nanoTime() - queuedAt) % LOG_EVERY == 0) {
+                    this.logStats(lane);
+                }
+            }
+        });
+    }
+
+    private void logStats(Lane lane) {
+        log.debug("{} lane: {} fired, {} dropped, {} queued, {}ms average and {}ms max latency", lane.name,
+            this.getFiredCount(lane),
+            this.getDroppedCount(lane),
+            this.getQueueDepth(lane),
+            Math.round(this.getAverageLatencyMillis(lane)),
+            Math.round(this.getMaxLatencyMillis(lane)));
+    }
+
+    public int getQueueDepth(Lane lane) {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executors.get(lane);
+        }
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of notifications dropped because the lane's queue was full
+     */
+    public long getDroppedCount(Lane lane) {
+        return this.stats.get(lane).dropped.get();
+    }
+
+    public long getFiredCount(Lane lane) {
+        return this.stats.get(lane).fired.get();
+    }
+
+    /**
+     * @return the average time from dispatch to the notification finishing, in milliseconds
+     */
+    public double getAverageLatencyMillis(Lane lane) {
+        LaneStats laneStats = this.stats.get(lane);
+        long fired = laneStats.fired.get();
+        return fired == 0 ? 0 : laneStats.totalLatencyNanos.get() / (double) fired / 1_000_000;
+    }
+
+    public double getMaxLatencyMillis(Lane lane) {
+        return this.stats.get(lane).maxLatencyNanos.get() / 1_000_000d;
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class LaneStats {
+        private final AtomicLong fired = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong totalLatencyNanos = new AtomicLong();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        /**
+         * @return how many notifications the lane has fired, including this one
+         */
+        private long record(long latencyNanos) {
+            this.totalLatencyNanos.addAndGet(latencyNanos);
+            this.maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+            return this.fired.incrementAndGet();
+        }
+    }
+}
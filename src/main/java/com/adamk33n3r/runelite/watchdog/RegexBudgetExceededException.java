@@ -0,0 +1,11 @@
+package com.adamk33n3r.runelite.watchdog;
+
+/**
+ * Thrown when a pattern reads more characters than its budget while matching one input
+ */
+public class RegexBudgetExceededException extends RuntimeException {
+    public RegexBudgetExceededException() {
+        // Thrown from deep in the regex engine, and the stack trace isn't useful
+        super("Pattern took too many steps to match", null, false, false);
+    }
+}
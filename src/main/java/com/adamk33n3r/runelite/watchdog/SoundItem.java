@@ -1,13 +1,36 @@
 package com.adamk33n3r.runelite.watchdog;
 
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+
 import lombok.*;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Getter
 @RequiredArgsConstructor
 public class SoundItem {
+    // Highest priority first, then in the order they were queued
+    public static final Comparator<SoundItem> QUEUE_ORDER = Comparator.comparing(SoundItem::getPriority).reversed()
+        .thenComparingLong(SoundItem::getSequence);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private final File file;
     private final Integer gain;
     private final Integer repeatSeconds;
+    private final SoundPriority priority;
+    // The alert that played it, if any
+    @Nullable
+    private final Alert alert;
+    private final long sequence = SEQUENCE.getAndIncrement();
+    private final long queuedNanos = System.nanoTime();
+
+    /**
+     * @return whether this would play the same thing for the same alert
+     */
+    public boolean isDuplicateOf(SoundItem other) {
+        return this.alert != null && this.alert == other.alert && this.file.equals(other.file);
+    }
 }
@@ -1,28 +1,46 @@
 package com.adamk33n3r.runelite.watchdog;
 
-import jaco.mp3.player.MP3Player;
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.audio.AudioLineProvider;
+import com.adamk33n3r.runelite.watchdog.audio.AudioMixer;
+import com.adamk33n3r.runelite.watchdog.audio.DecodedSound;
+import com.adamk33n3r.runelite.watchdog.audio.PcmCache;
+import com.adamk33n3r.runelite.watchdog.audio.PcmSource;
+import com.adamk33n3r.runelite.watchdog.audio.Voice;
+
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.Constants;
-import net.runelite.client.callback.ClientThread;
 import net.runelite.client.ui.ClientUI;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import javax.sound.sampled.*;
-import javax.swing.SwingUtilities;
+import javax.sound.sampled.UnsupportedAudioFileException;
 import java.awt.Toolkit;
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
-import java.util.Queue;
+import java.io.IOException;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Plays sounds through an {@link AudioMixer}. Queued sounds are started one at a time by a thread that blocks on the
+ * queue while there's nothing to play, and on the playing voice until it ends. Sounds that aren't queued start right
+ * away and play over whatever else is playing.
+ * <p>
+ * The queue plays higher priority sounds first, and a critical sound stops a lower priority one that is playing. A
+ * sound is not queued again while the same alert already has it waiting, and sounds that waited longer than the max
+ * age are skipped since they likely aren't relevant anymore.
+ */
 @Slf4j
 @Singleton
 public class SoundPlayer {
+    private static final long CACHE_MAX_BYTES = 32 * 1024 * 1024;
+    private static final int MAX_VOICES = 8;
+    // How often the queue logs its stats, in played sounds
+    private static final int LOG_EVERY = 100;
+
     @Inject
     private ClientUI clientUI;
 
@@ -30,57 +48,165 @@ public class SoundPlayer {
     private Client client;
 
     @Inject
-    private transient ClientThread clientThread;
+    private WatchdogConfig config;
 
     @Inject
-    private WatchdogConfig config;
+    private NotificationDispatcher notificationDispatcher;
 
-    private final MP3Player mp3Player;
+    @Inject
+    private AudioLineProvider lineProvider;
 
-    private final Queue<SoundItem> queue = new ConcurrentLinkedQueue<>();
+    @Getter
+    private final PcmCache cache = new PcmCache(CACHE_MAX_BYTES);
+    @Getter
+    private AudioMixer mixer;
 
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
-    private ScheduledFuture<?> soundPlayerFuture;
-    private ScheduledFuture<?> soundTimeoutFuture;
+    private final BlockingQueue<SoundItem> queue = new PriorityBlockingQueue<>(11, SoundItem.QUEUE_ORDER);
+    // What the queue is playing, guarded by the queue
+    @Nullable
+    private SoundItem playingItem;
+    @Nullable
+    private Voice playingVoice;
 
-    private boolean mp3IsPlaying = false;
-    private boolean clipIsPlaying = false;
-    private long mouseLastPressedMillis;
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong dedupedCount = new AtomicLong();
+    private final AtomicLong preemptedCount = new AtomicLong();
+    private final AtomicLong playedCount = new AtomicLong();
 
-    public SoundPlayer() {
-        this.mp3Player = new MP3Player();
-    }
+    private volatile boolean running = false;
+    private Thread queueThread;
+
+    public synchronized void startUp() {
+        if (this.running) {
+            return;
+        }
 
-    public void startUp() {
-        this.soundPlayerFuture = this.executor.scheduleAtFixedRate(
-                this::processQueue,
-                0,
-                100,
-                TimeUnit.MILLISECONDS
-        );
+        this.running = true;
+        this.mixer = new AudioMixer(this.lineProvider, MAX_VOICES);
+        this.mixer.startUp();
+        this.queueThread = new Thread(this::processQueue, "watchdog-sound-queue");
+        this.queueThread.setDaemon(true);
+        this.queueThread.start();
     }
 
-    public void shutDown() {
-        this.soundPlayerFuture.cancel(false);
-        this.soundTimeoutFuture.cancel(false);
+    public synchronized void shutDown() {
+        if (!this.running) {
+            return;
+        }
+
+        this.running = false;
         this.queue.clear();
+        this.queueThread.interrupt();
+        this.mixer.shutDown();
+        this.cache.clear();
     }
 
-    public void processQueue() {
-        // Handle mp3 being over
-        if (!this.clipIsPlaying && this.mp3IsPlaying && this.mp3Player.isStopped()) {
-            if (this.mp3Player.isRepeat()) {
-                this.mp3Player.play();
+    private void processQueue() {
+        while (this.running) {
+            try {
+                SoundItem soundItem = this.queue.take();
+                if (this.isExpired(soundItem)) {
+                    continue;
+                }
+
+                CountDownLatch ended = new CountDownLatch(1);
+                Voice voice = this.start(soundItem, ended::countDown);
+                if (voice == null) {
+                    if (!soundItem.getFile().exists()) {
+                        // Give the beep a moment before the next sound
+                        Thread.sleep(1000);
+                    }
+                    continue;
+                }
+
+                synchronized (this.queue) {
+                    this.playingItem = soundItem;
+                    this.playingVoice = voice;
+                    // Something critical could have been queued while this was starting
+                    this.preemptIfNeeded();
+                }
+                try {
+                    ended.await();
+                    if (this.playedCount.incrementAndGet() % LOG_EVERY == 0) {
+                        this.logStats();
+                    }
+                } finally {
+                    synchronized (this.queue) {
+                        this.playingItem = null;
+                        this.playingVoice = null;
+                    }
+                }
+            } catch (InterruptedException e) {
                 return;
-            } else {
-                this.mp3IsPlaying = false;
             }
         }
-        if (mp3IsPlaying || clipIsPlaying) {
+    }
+
+    private boolean isExpired(SoundItem soundItem) {
+        int maxAge = this.config.soundQueueMaxAge();
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - soundItem.getQueuedNanos());
+        if (maxAge <= 0 || waitedMillis <= TimeUnit.SECONDS.toMillis(maxAge)) {
+            return false;
+        }
+
+        log.debug("Skipping {} after waiting {}ms in the queue, {} skipped so far", soundItem.getFile().getName(), waitedMillis, this.expiredCount.incrementAndGet());
+        return true;
+    }
+
+    /**
+     * Stops what the queue is playing if a critical sound is waiting and what's playing isn't critical
+     */
+    private void preemptIfNeeded() {
+        SoundItem next = this.queue.peek();
+        if (this.playingVoice == null || next == null || next.getPriority() != SoundPriority.CRITICAL
+            || this.playingItem.getPriority().compareTo(next.getPriority()) >= 0) {
             return;
         }
 
-        this.playNext(this.mp3Player);
+        log.debug("Stopping {} for a critical sound, {} stopped so far", this.playingItem.getFile().getName(), this.preemptedCount.incrementAndGet());
+        this.playingVoice.stop();
+        this.playingVoice = null;
+    }
+
+    private void logStats() {
+        log.debug("Sound queue: {} played, {} queued, {} skipped for waiting too long, {} already queued, {} stopped for a critical sound",
+            this.getPlayedCount(),
+            this.getQueueLength(),
+            this.getExpiredCount(),
+            this.getDedupedCount(),
+            this.getPreemptedCount());
+    }
+
+    public int getQueueLength() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return how many queued sounds were skipped for waiting too long
+     */
+    public long getExpiredCount() {
+        return this.expiredCount.get();
+    }
+
+    /**
+     * @return how many sounds weren't queued because the same alert already had them waiting
+     */
+    public long getDedupedCount() {
+        return this.dedupedCount.get();
+    }
+
+    /**
+     * @return how many sounds were stopped early for a critical sound
+     */
+    public long getPreemptedCount() {
+        return this.preemptedCount.get();
+    }
+
+    /**
+     * @return how many queued sounds have finished playing, including ones that were stopped early
+     */
+    public long getPlayedCount() {
+        return this.playedCount.get();
     }
 
     public void play(File soundFile, int volume) {
@@ -88,98 +214,91 @@ public class SoundPlayer {
     }
 
     public void play(File soundFile, int volume, int repeatTime) {
-        this.queue.add(new SoundItem(soundFile, volume, repeatTime));
-        if (!WatchdogPlugin.getInstance().getConfig().putSoundsIntoQueue()) {
-            SwingUtilities.invokeLater(() -> this.playNext(this.mp3Player));
-        }
+        this.play(soundFile, volume, repeatTime, SoundPriority.NORMAL, null);
     }
 
-    private void playNext(MP3Player mp3Player) {
-        SoundItem nextSound = this.queue.poll();
-        if (nextSound == null) {
+    /**
+     * @param alert the alert the sound is for, used to not queue the same sound for it more than once
+     */
+    public void play(File soundFile, int volume, int repeatTime, SoundPriority priority, @Nullable Alert alert) {
+        SoundItem soundItem = new SoundItem(soundFile, volume, repeatTime, priority, alert);
+        if (!this.config.putSoundsIntoQueue()) {
+            this.start(soundItem, () -> {});
             return;
         }
 
-        if (!nextSound.getFile().exists()) {
-            log.error(String.format("File not found: %s", nextSound.getFile().getAbsolutePath()));
-            this.clipIsPlaying = true;
+        synchronized (this.queue) {
+            for (SoundItem queued : this.queue) {
+                if (soundItem.isDuplicateOf(queued)) {
+                    log.debug("{} is already queued, {} not queued so far", soundFile.getName(), this.dedupedCount.incrementAndGet());
+                    return;
+                }
+            }
+            this.queue.add(soundItem);
+            this.preemptIfNeeded();
+        }
+    }
+
+    /**
+     * Starts the sound on the mixer, repeating it until its repeat time is up
+     *
+     * @param onEnd called once the sound has stopped playing, if it was started
+     * @return the playing voice, or null if the file is missing or can't be played
+     */
+    @Nullable
+    private Voice start(SoundItem soundItem, Runnable onEnd) {
+        File file = soundItem.getFile();
+        if (!file.exists()) {
+            log.error(String.format("File not found: %s", file.getAbsolutePath()));
             Toolkit.getDefaultToolkit().beep();
-            this.executor.schedule(() -> this.clipIsPlaying = false, 1, TimeUnit.SECONDS);
-            return;
+            return null;
         }
 
-        mouseLastPressedMillis = client.getMouseLastPressedMillis();
-
-        log.debug(String.format("Now playing: %s", nextSound.getFile().getAbsolutePath()));
-
-        if (nextSound.getFile().getName().endsWith(".mp3")) {
-            mp3Player.getPlayList().clear();
-            mp3Player.add(nextSound.getFile());
-            mp3Player.setVolume(nextSound.getGain() * 10);
-            this.mp3IsPlaying = true;
-            mp3Player.play();
-            // jaco.mp3 repeat functionality is broken, but we are using it to signal to ourselves to repeat on loop
-            mp3Player.setRepeat(true);
-            setTimeout(() -> {
-                mp3Player.setRepeat(false);
-            }, nextSound.getRepeatSeconds());
-        } else {
-            try {
-                Clip clip = AudioSystem.getClip();
-                try (InputStream fileStream = new BufferedInputStream(new FileInputStream(nextSound.getFile()));
-                     AudioInputStream sound = AudioSystem.getAudioInputStream(fileStream)) {
-                    clip.open(sound);
-                    FloatControl volumeFC = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                    int decibels = Util.scale(nextSound.getGain(), 0, 10, -25, 5);
-                    volumeFC.setValue(decibels);
-                    this.clipIsPlaying = true;
-                    clip.loop(0);
-                    AtomicBoolean isLooping = new AtomicBoolean(true);
-                    clip.addLineListener(event -> {
-                        if (event.getType() == LineEvent.Type.STOP) {
-                            if (isLooping.get()) {
-                                clip.setFramePosition(0);
-                                clip.loop(0);
-                            } else {
-                                this.clipIsPlaying = false;
-                                clip.close();
-                            }
-                        }
-                    });
-                    setTimeout(() -> {
-                        isLooping.set(false);
-                    }, nextSound.getRepeatSeconds());
-                } catch (Exception e) {
-//                } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-                    log.warn("Unable to load sound", e);
-                    clip.close();
-                }
-            } catch (Exception e) {
-                log.error("Error trying to create clip", e);
-            }
+        log.debug(String.format("Now playing: %s", file.getAbsolutePath()));
+
+        try {
+            // Sounds that are too big to cache are streamed from the file
+            DecodedSound decoded = this.cache.get(file);
+            Voice.SourceFactory sourceFactory = decoded != null ? decoded::open : () -> PcmSource.open(file);
+            CompletableFuture<Future<?>> timeout = new CompletableFuture<>();
+            Voice voice = this.mixer.play(sourceFactory, soundItem.getGain(), soundItem.getPriority().ordinal(), soundItem.getRepeatSeconds() != 0, () -> {
+                // The timeout is only there to stop the repeating
+                timeout.thenAccept(future -> {
+                    if (future != null) {
+                        future.cancel(false);
+                    }
+                });
+                onEnd.run();
+            });
+            timeout.complete(this.setTimeout(() -> voice.setLooping(false), soundItem.getRepeatSeconds()));
+            return voice;
+        } catch (IOException | UnsupportedAudioFileException e) {
+            log.warn("Unable to play sound", e);
+            return null;
         }
     }
 
     /**
      * Internally polls for user interaction if the delay is < 0
      */
-    private void setTimeout(Runnable runnable, int delaySeconds) {
+    @Nullable
+    private Future<?> setTimeout(Runnable runnable, int delaySeconds) {
         if (delaySeconds == 0) {
             runnable.run();
-            return;
+            return null;
         }
         if (delaySeconds < 0) {
-            this.soundTimeoutFuture = this.executor.scheduleAtFixedRate(() -> {
-                if (hasUserInteraction()) {
+            long mouseLastPressedMillis = this.client.getMouseLastPressedMillis();
+            return this.notificationDispatcher.getScheduler().scheduleAtFixedRate(() -> {
+                if (this.hasUserInteraction(mouseLastPressedMillis)) {
                     runnable.run();
                 }
             }, 0, Constants.CLIENT_TICK_LENGTH, TimeUnit.MILLISECONDS);
-            return;
         }
-        this.soundTimeoutFuture = this.executor.schedule(runnable, delaySeconds, TimeUnit.SECONDS);
+        return this.notificationDispatcher.getScheduler().schedule(runnable, delaySeconds, TimeUnit.SECONDS);
     }
 
-    private boolean hasUserInteraction() {
+    private boolean hasUserInteraction(long mouseLastPressedMillis) {
         // We poll this every client tick, if there was any activity in the past second, that counts
         int clientTicksSinceActivity = 1000 / Constants.CLIENT_TICK_LENGTH;
         if (((client.getMouseIdleTicks() < clientTicksSinceActivity && this.config.mouseMovementCancels())
@@ -0,0 +1,147 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.audio.DecodedSound;
+import com.adamk33n3r.runelite.watchdog.audio.PcmCache;
+import com.adamk33n3r.runelite.watchdog.notifications.Notification;
+import com.adamk33n3r.runelite.watchdog.notifications.Sound;
+import com.adamk33n3r.runelite.watchdog.notifications.TextToSpeech;
+
+import joptsimple.internal.Strings;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Decodes the sounds that enabled alerts can play into the {@link SoundPlayer}'s cache in the background, so the
+ * first time one plays it doesn't wait on the disk or the decoder. Runs whenever the alerts change. Sound paths with
+ * trigger value placeholders and speech that hasn't been generated yet can't be known ahead of time, so are skipped.
+ */
+@Slf4j
+@Singleton
+public class SoundPreloader {
+    @Inject
+    private AlertManager alertManager;
+
+    @Inject
+    private SoundPlayer soundPlayer;
+
+    @Inject
+    private WatchdogConfig config;
+
+    private final Consumer<AlertSnapshot> snapshotListener = snapshot -> this.schedule();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private ThreadPoolExecutor executor;
+
+    public synchronized void startUp() {
+        this.executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "watchdog-sound-preload");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.alertManager.addSnapshotListener(this.snapshotListener);
+        this.schedule();
+    }
+
+    public synchronized void shutDown() {
+        this.alertManager.removeSnapshotListener(this.snapshotListener);
+        this.executor.shutdownNow();
+        this.scheduled.set(false);
+    }
+
+    private synchronized void schedule() {
+        // Edits come in bursts, one pass after them picks them all up
+        if (this.executor != null && !this.executor.isShutdown() && this.scheduled.compareAndSet(false, true)) {
+            this.executor.execute(() -> {
+                this.scheduled.set(false);
+                this.preload(this.alertManager.getSnapshot());
+            });
+        }
+    }
+
+    private void preload(AlertSnapshot snapshot) {
+        PcmCache cache = this.soundPlayer.getCache();
+        // Leave room in the cache for the sounds that actually get played
+        long budget = Math.min(this.config.preloadSoundsBudget() * 1024L * 1024L, cache.getMaxBytes() / 2);
+        if (budget <= 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long bytes = 0;
+        int count = 0;
+        for (File file : this.getSoundFiles(snapshot)) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (!file.isFile()) {
+                continue;
+            }
+            // Decoding to 16 bit pcm never makes a sound much smaller than its file, so this skips what can't fit without decoding it
+            if (file.length() > budget - bytes) {
+                log.debug("Skipping {}, it doesn't fit in what's left of the sound preload budget", file);
+                continue;
+            }
+
+            try {
+                DecodedSound sound = cache.preload(file);
+                if (sound != null) {
+                    bytes += sound.getData().length;
+                    count++;
+                }
+            } catch (IOException | UnsupportedAudioFileException e) {
+                log.debug("Unable to preload {}", file, e);
+            }
+            if (bytes >= budget) {
+                log.debug("Reached the sound preload budget");
+                break;
+            }
+        }
+        log.debug("Preloaded {} sounds ({}KB) in {}ms, {}% of plays were preloaded so far", count, bytes / 1024,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Math.round(cache.getPreloadHitRate() * 100));
+    }
+
+    private Set<File> getSoundFiles(AlertSnapshot snapshot) {
+        Set<File> files = new LinkedHashSet<>();
+        for (TriggerType type : TriggerType.values()) {
+            for (Alert alert : snapshot.getAlerts(type)) {
+                for (Notification notification : alert.getNotifications()) {
+                    if (notification instanceof Sound) {
+                        String path = ((Sound) notification).getPath();
+                        if (!Strings.isNullOrEmpty(path) && !MessageTemplate.parse(path).hasPlaceholders()) {
+                            files.add(new File(path));
+                        }
+                    } else if (notification instanceof TextToSpeech && this.config.ttsEnabled()) {
+                        TextToSpeech textToSpeech = (TextToSpeech) notification;
+                        String message = textToSpeech.getMessage();
+                        if (!Strings.isNullOrEmpty(message) && !MessageTemplate.parse(message).hasPlaceholders()) {
+                            try {
+                                files.add(textToSpeech.getCacheFile(message));
+                            } catch (IOException e) {
+                                log.debug("Unable to find the cached speech for {}", message, e);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    public double getHitRate() {
+        return this.soundPlayer.getCache().getPreloadHitRate();
+    }
+}
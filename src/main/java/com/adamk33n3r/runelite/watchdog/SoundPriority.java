@@ -0,0 +1,22 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SoundPriority implements Displayable {
+    LOW("Low", "Plays after every other queued sound"),
+    NORMAL("Normal", "Plays in the order it was queued"),
+    HIGH("High", "Plays before low and normal priority sounds in the queue"),
+    CRITICAL("Critical", "Plays straight away, stopping any lower priority sound that is playing from the queue"),
+    ;
+
+    private final String name;
+    private final String tooltip;
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
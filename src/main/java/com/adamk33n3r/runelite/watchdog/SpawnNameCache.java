@@ -0,0 +1,102 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import net.runelite.api.Client;
+import net.runelite.api.ObjectComposition;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.Text;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Arrays;
+
+/**
+ * Unformatted object and item names by id, so spawn and inventory events don't look up the composition of every
+ * object in a scene load or item in the inventory. Object names that come from an impostor depend on varbits, so
+ * they are only kept until the next varbit change. Only used from the client thread.
+ */
+@Singleton
+public class SpawnNameCache {
+    // Resolved names that never change, as opposed to ones tied to a varbit generation
+    private static final int PERMANENT = Integer.MAX_VALUE;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private ItemManager itemManager;
+
+    private String[] objectNames = new String[0];
+    // The varbit generation each object name was resolved in, 0 if it hasn't been resolved
+    private int[] objectGenerations = new int[0];
+    private int varbitGeneration = 1;
+
+    private String[] itemNames = new String[0];
+
+    /**
+     * @return the name of the object, or its impostor's name, or null if the impostor is currently nothing
+     */
+    @Nullable
+    public String getObjectName(int id) {
+        if (id < 0) {
+            return this.resolveObjectName(id);
+        }
+        if (id >= this.objectNames.length) {
+            int size = Math.max(id + 1, this.objectNames.length * 2);
+            this.objectNames = Arrays.copyOf(this.objectNames, size);
+            this.objectGenerations = Arrays.copyOf(this.objectGenerations, size);
+        }
+
+        int generation = this.objectGenerations[id];
+        if (generation == PERMANENT || generation == this.varbitGeneration) {
+            return this.objectNames[id];
+        }
+
+        final ObjectComposition comp = this.client.getObjectDefinition(id);
+        this.objectGenerations[id] = comp.getImpostorIds() != null ? this.varbitGeneration : PERMANENT;
+        return this.objectNames[id] = this.resolveObjectName(comp);
+    }
+
+    public String getItemName(int id) {
+        if (id < 0) {
+            return Text.removeFormattingTags(this.itemManager.getItemComposition(id).getName());
+        }
+        if (id >= this.itemNames.length) {
+            this.itemNames = Arrays.copyOf(this.itemNames, Math.max(id + 1, this.itemNames.length * 2));
+        }
+
+        String name = this.itemNames[id];
+        if (name == null) {
+            name = this.itemNames[id] = Text.removeFormattingTags(this.itemManager.getItemComposition(id).getName());
+        }
+        return name;
+    }
+
+    /**
+     * Impostors are picked by varbits, so any change could mean a different name
+     */
+    public void onVarbitChanged() {
+        this.varbitGeneration++;
+        if (this.varbitGeneration == PERMANENT) {
+            this.varbitGeneration = 1;
+            Arrays.fill(this.objectGenerations, 0);
+        }
+    }
+
+    public void clear() {
+        this.objectNames = new String[0];
+        this.objectGenerations = new int[0];
+        this.itemNames = new String[0];
+    }
+
+    @Nullable
+    private String resolveObjectName(int id) {
+        return this.resolveObjectName(this.client.getObjectDefinition(id));
+    }
+
+    @Nullable
+    private String resolveObjectName(ObjectComposition comp) {
+        final ObjectComposition impostor = comp.getImpostorIds() != null ? comp.getImpostor() : comp;
+        return impostor == null ? null : Text.removeFormattingTags(impostor.getName());
+    }
+}
@@ -5,6 +5,8 @@ import net.runelite.client.util.Text;
 import com.google.common.base.Splitter;
 
 import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -107,6 +109,91 @@ public class Util {
         return sb.toString();
     }
 
+    /**
+     * Checks for a group with an unbounded quantifier inside that is itself repeated without bound, like
+     * <code>(a+)+</code> or <code>(.*a)*b</code>. Patterns like that can backtrack for a very long time on inputs that
+     * almost match.
+     */
+    public static boolean hasNestedQuantifier(String regex) {
+        Deque<Boolean> groups = new ArrayDeque<>();
+        // Whether the group we're in so far has an unbounded quantifier
+        boolean repeats = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char ch = regex.charAt(i);
+            switch (ch) {
+                case '\\':
+                    if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                        int end = regex.indexOf("\\E", i + 2);
+                        i = end < 0 ? regex.length() : end + 1;
+                    } else {
+                        i++;
+                    }
+                    break;
+                case '[':
+                    i = skipCharacterClass(regex, i);
+                    break;
+                case '(':
+                    groups.push(repeats);
+                    repeats = false;
+                    break;
+                case ')':
+                    boolean inner = repeats;
+                    repeats = groups.isEmpty() ? false : groups.pop();
+                    if (inner && isUnboundedQuantifier(regex, i + 1)) {
+                        return true;
+                    }
+                    repeats |= inner;
+                    break;
+                default:
+                    if (isUnboundedQuantifier(regex, i)) {
+                        repeats = true;
+                    }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUnboundedQuantifier(String regex, int i) {
+        if (i >= regex.length()) {
+            return false;
+        }
+        char ch = regex.charAt(i);
+        if (ch == '*' || ch == '+') {
+            return true;
+        }
+        if (ch != '{') {
+            return false;
+        }
+        // {n,} has no upper bound
+        int end = regex.indexOf('}', i);
+        return end > 0 && regex.charAt(end - 1) == ',';
+    }
+
+    /**
+     * @return the index of the ] that closes the class starting at start
+     */
+    private static int skipCharacterClass(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char ch = regex.charAt(i);
+            if (ch == '\\') {
+                i += 2;
+                continue;
+            }
+            if (ch == '[') {
+                depth++;
+                // A ] right at the start of a class is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') i++;
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') i++;
+            } else if (ch == ']' && --depth == 0) {
+                return i;
+            }
+            i++;
+        }
+        return regex.length();
+    }
+
     public static String splitCamelCase(String s) {
         return s.replaceAll(
             String.format("%s|%s|%s",
@@ -127,11 +214,7 @@ public class Util {
             return null;
         }
 
-        for (int i = 0; i < triggerValues.length; i++) {
-            string = string.replaceAll("\\$"+(i+1), triggerValues[i]);
-        }
-
-        return string;
+        return MessageTemplate.parse(string).render(triggerValues);
     }
 
     /**
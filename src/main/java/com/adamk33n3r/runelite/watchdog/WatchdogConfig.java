@@ -18,12 +18,20 @@ public interface WatchdogConfig extends Config {
     Color DEFAULT_NOTIFICATION_TEXT_COLOR = Color.WHITE;
 
     // Hidden
+    // Legacy, replaced by the shards
     String ALERTS = "alerts";
+    // The ids of the alert shards in order, each top level alert is stored in the ALERT_SHARD_PREFIX + id key
+    String ALERT_SHARDS = "alertShards";
+    String ALERT_SHARD_PREFIX = "alert.";
     String PLUGIN_VERSION = "pluginVersion";
 
     // Core
     String ENABLE_TTS = "enableTTS";
     String OVERRIDE_IMPORTS_WITH_DEFAULTS = "overrideImportsWithDefaults";
+    String BATCH_SPAWNS_PER_TICK = "batchSpawnsPerTick";
+    String MATCH_OFF_CLIENT_THREAD = "matchOffClientThread";
+    String REGEX_STEP_BUDGET = "regexStepBudget";
+    String PRELOAD_SOUNDS_BUDGET = "preloadSoundsBudget";
 
     // AFK Notification
     String DEFAULT_AFK_MODE = "defaultAFKMode";
@@ -51,6 +59,7 @@ public interface WatchdogConfig extends Config {
 
     // Sound
     String PUT_SOUNDS_INTO_QUEUE = "putSoundsIntoQueue";
+    String SOUND_QUEUE_MAX_AGE = "soundQueueMaxAge";
     String DEFAULT_SOUND_VOLUME = "defaultSoundVolume";
     String DEFAULT_SOUND_PATH = "defaultSoundPath";
 
@@ -304,7 +313,8 @@ public interface WatchdogConfig extends Config {
         keyName = DEFAULT_SOUND_VOLUME,
         name = "Default Volume",
         description = "The default volume",
-        section = soundSection
+        section = soundSection,
+        position = 0
     )
     @Range(min = 0, max = 10)
     default int defaultSoundVolume() { return 8; }
@@ -313,9 +323,20 @@ public interface WatchdogConfig extends Config {
         keyName = DEFAULT_SOUND_PATH,
         name = "Default Path",
         description = "The default path",
-        section = soundSection
+        section = soundSection,
+        position = 1
     )
     default String defaultSoundPath() { return null; }
+
+    @ConfigItem(
+        keyName = SOUND_QUEUE_MAX_AGE,
+        name = "Sound Queue Max Age",
+        description = "Queued sounds and TTS that haven't started playing after this many seconds are skipped. 0 to never skip",
+        section = soundSection,
+        position = 2
+    )
+    @Units(Units.SECONDS)
+    default int soundQueueMaxAge() { return 30; }
     //endregion
 
     //region Sound Effect
@@ -404,4 +425,51 @@ public interface WatchdogConfig extends Config {
     )
     default String defaultElevenLabsVoice() { return null; }
     //endregion
+
+    //region Performance
+    @ConfigSection(
+        name = "Performance",
+        description = "The options that control how the plugin trades memory and threads for less stutter",
+        position = 7,
+        closedByDefault = true
+    )
+    String performanceSection = "performanceSection";
+
+    @ConfigItem(
+        keyName = BATCH_SPAWNS_PER_TICK,
+        name = "Batch Spawns Per Tick",
+        description = "Collect spawned alerts over a game tick so each alert fires at most once per tick, and ignore objects that only despawned and respawned because the area reloaded",
+        section = performanceSection,
+        position = 0
+    )
+    default boolean batchSpawnsPerTick() { return false; }
+
+    @ConfigItem(
+        keyName = MATCH_OFF_CLIENT_THREAD,
+        name = "Match Off Client Thread",
+        description = "Match chat, notification, and spawned alerts on a background thread so that slow patterns or lots of alerts don't stutter the game",
+        section = performanceSection,
+        position = 1
+    )
+    default boolean matchOffClientThread() { return false; }
+
+    @ConfigItem(
+        keyName = REGEX_STEP_BUDGET,
+        name = "Regex Step Budget",
+        description = "How many characters a regex can read while matching one message before it gives up. Alerts that keep running out are disabled. 0 for no limit",
+        section = performanceSection,
+        position = 2
+    )
+    default int regexStepBudget() { return 100_000; }
+
+    @ConfigItem(
+        keyName = PRELOAD_SOUNDS_BUDGET,
+        name = "Sound Preload Budget (MB)",
+        description = "How much memory the sounds of enabled alerts can use when loaded ahead of time so they play without delay the first time. 0 to turn off",
+        section = performanceSection,
+        position = 3
+    )
+    @Range(min = 0, max = 16)
+    default int preloadSoundsBudget() { return 16; }
+    //endregion
 }
@@ -26,6 +26,7 @@ import javax.inject.Provider;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -55,7 +56,14 @@ public class WatchdogPanel extends PluginPanel {
     private String PLUGIN_VERSION_PHASE;
 
     @Getter
-    private final MultiplexingPluginPanel muxer = new MultiplexingPluginPanel(this);
+    private final MultiplexingPluginPanel muxer = new MultiplexingPluginPanel(this) {
+        @Override
+        public void onDeactivate() {
+            super.onDeactivate();
+            // Done editing for now, so don't leave any changes waiting to be saved
+            alertManager.flushAlerts();
+        }
+    };
 
     @Getter
     @Inject
@@ -67,9 +75,6 @@ public class WatchdogPanel extends PluginPanel {
     @Inject
     private AlertManager alertManager;
 
-    @Inject
-    private WatchdogConfig watchdogConfig;
-
     @Inject
     private OkHttpClient httpClient;
 
@@ -77,12 +82,19 @@ public class WatchdogPanel extends PluginPanel {
     private Client client;
 
     private AlertListPanel alertListPanel;
+    // Nothing is built until the panel is first opened, and it is rebuilt every time it is shown anyway
+    private boolean active = false;
 
     public WatchdogPanel() {
         super(false);
     }
 
     public void rebuild() {
+        if (!this.active) {
+            return;
+        }
+
+        long start = System.nanoTime();
         this.removeAll();
         this.setLayout(new BorderLayout(0, 3));
         this.setBorder(new EmptyBorder(0, 5, 0, 5));
@@ -155,7 +167,7 @@ public class WatchdogPanel extends PluginPanel {
         importButton.addActionListener(ev -> {
             ImportExportDialog importExportDialog = new ImportExportDialog(
                 SwingUtilities.getWindowAncestor(this),
-                (json, append) -> this.alertManager.importAlerts(json, this.alertManager.getAlerts(), append, true, this.watchdogConfig.overrideImportsWithDefaults())
+                (parsed, append) -> this.alertManager.applyImport(parsed, this.alertManager.getAlerts(), append)
             );
             importExportDialog.setVisible(true);
         });
@@ -180,6 +192,7 @@ public class WatchdogPanel extends PluginPanel {
         this.add(bottomPanel, BorderLayout.SOUTH);
 
         this.revalidate();
+        log.debug("Built the panel in {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     public void openAlert(Alert alert) {
@@ -213,10 +226,19 @@ public class WatchdogPanel extends PluginPanel {
 
     @Override
     public void onActivate() {
+        this.active = true;
         this.rebuild();
     }
 
+    @Override
+    public void onDeactivate() {
+        this.active = false;
+    }
+
     public void scrollToBottom() {
+        if (this.alertListPanel == null) {
+            return;
+        }
         JScrollBar scrollBar = this.alertListPanel.getScrollPane().getVerticalScrollBar();
         scrollBar.setValue(scrollBar.getMaximum());
     }
@@ -38,9 +38,11 @@ import javax.inject.Provider;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static net.runelite.api.MenuAction.RUNELITE_OVERLAY_CONFIG;
 
@@ -78,6 +80,9 @@ public class WatchdogPlugin extends Plugin {
     @Inject
     private EventHandler eventHandler;
 
+    @Inject
+    private NotificationDispatcher notificationDispatcher;
+
     @Getter
     @Inject
     private FlashOverlay flashOverlay;
@@ -89,6 +94,9 @@ public class WatchdogPlugin extends Plugin {
     @Inject
     private Provider<ConfigPlugin> configPluginProvider;
 
+    @Inject
+    private ScheduledExecutorService executor;
+
     @Getter
     private WatchdogPanel panel;
 
@@ -96,11 +104,18 @@ public class WatchdogPlugin extends Plugin {
     @Inject
     private SoundPlayer soundPlayer;
 
+    @Inject
+    private SoundPreloader soundPreloader;
+
     @Getter
     @Inject
     private OkHttpClient httpClient;
 
     private NavigationButton navButton;
+    // Loads the alerts and then starts the event handler, so the client doesn't wait on parsing them
+    private Future<?> loadFuture;
+    // Set on shut down so a load that is still running doesn't swap its alerts in or start the event handler after it
+    private AtomicBoolean loadCancelled;
 
     @Getter
     private static WatchdogPlugin instance;
@@ -118,12 +133,58 @@ public class WatchdogPlugin extends Plugin {
 
     @Override
     protected void startUp() throws Exception {
-        this.eventBus.register(this.eventHandler);
+        long start = System.nanoTime();
+        this.notificationDispatcher.startUp();
 
         this.overlayManager.add(this.flashOverlay);
         this.overlayManager.add(this.notificationOverlay);
 
-        this.alertManager.loadAlerts();
+        // The panel itself is only built the first time it's opened
+        this.panel = this.alertManager.getWatchdogPanel();
+        AsyncBufferedImage icon = this.itemManager.getImage(ItemID.BELL_BAUBLE);
+        this.navButton = NavigationButton.builder()
+            .tooltip("Watchdog")
+            .icon(icon)
+            .priority(1)
+            .panel(this.panel.getMuxer())
+            .build();
+        this.clientToolbar.addNavigation(this.navButton);
+        // For first load
+        icon.onLoaded(() -> {
+            this.clientToolbar.removeNavigation(this.navButton);
+            this.clientToolbar.addNavigation(this.navButton);
+        });
+        this.soundPlayer.startUp();
+        // Picks the sounds up once the alerts have loaded
+        this.soundPreloader.startUp();
+        log.debug("Started up in {}ms, loading alerts in the background", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        this.loadCancelled = cancelled;
+        this.loadFuture = this.executor.submit(() -> this.loadAlerts(cancelled));
+    }
+
+    private void loadAlerts(AtomicBoolean cancelled) {
+        long start = System.nanoTime();
+        try {
+            // Runs on the EDT, the same as shutDown, so it can't start the event handler after shutting down
+            this.alertManager.loadAlerts(cancelled::get, () -> {
+                long loaded = System.nanoTime();
+                this.addDefaultAlerts();
+                // Only handle events once the loaded alerts have been published in a snapshot
+                this.eventHandler.startUp();
+                long end = System.nanoTime();
+                log.debug("Alerts ready in {}ms (load {}ms, event handler {}ms)",
+                    TimeUnit.NANOSECONDS.toMillis(end - start),
+                    TimeUnit.NANOSECONDS.toMillis(loaded - start),
+                    TimeUnit.NANOSECONDS.toMillis(end - loaded));
+            });
+        } catch (Exception e) {
+            log.error("Error loading alerts", e);
+        }
+    }
+
+    private void addDefaultAlerts() {
         List<Alert> alerts = this.alertManager.getAlerts();
 
         if (alerts.isEmpty()) {
@@ -140,31 +201,21 @@ public class WatchdogPlugin extends Plugin {
             outOfCombat.getNotifications().add(this.injector.getInstance(ScreenFlash.class));
             this.alertManager.addAlert(outOfCombat, false);
         }
-
-        this.panel = this.alertManager.getWatchdogPanel();
-        AsyncBufferedImage icon = this.itemManager.getImage(ItemID.BELL_BAUBLE);
-        this.navButton = NavigationButton.builder()
-            .tooltip("Watchdog")
-            .icon(icon)
-            .priority(1)
-            .panel(this.panel.getMuxer())
-            .build();
-        this.clientToolbar.addNavigation(this.navButton);
-        // For first load
-        icon.onLoaded(() -> {
-            this.clientToolbar.removeNavigation(this.navButton);
-            this.clientToolbar.addNavigation(this.navButton);
-        });
-        this.soundPlayer.startUp();
     }
 
     @Override
     protected void shutDown() throws Exception {
-        this.eventBus.unregister(this.eventHandler);
+        // A load that already started finishes in the background, but won't use what it loaded
+        this.loadCancelled.set(true);
+        this.loadFuture.cancel(false);
+        this.eventHandler.shutDown();
+        this.alertManager.flushAlerts();
         this.clientToolbar.removeNavigation(this.navButton);
         this.overlayManager.remove(this.flashOverlay);
         this.overlayManager.remove(this.notificationOverlay);
+        this.soundPreloader.shutDown();
         this.soundPlayer.shutDown();
+        this.notificationDispatcher.shutDown();
     }
 
     public void openConfiguration() {
@@ -201,7 +252,8 @@ public class WatchdogPlugin extends Plugin {
 
     @Subscribe
     private void onProfileChanged(ProfileChanged profileChanged) {
-        this.alertManager.loadAlerts();
+        AtomicBoolean cancelled = this.loadCancelled;
+        this.executor.execute(() -> this.alertManager.loadAlerts(cancelled::get, () -> {}));
     }
 
     @Provides
@@ -0,0 +1,95 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces saves so that a burst of edits, like typing in a text field, only writes once things go quiet. The
+ * write runs on a background thread, and at the latest {@code maxDelayMillis} after the first unsaved edit. If the
+ * model changes while it is being written, or the write fails, it is written again, so the last edit always ends up
+ * saved.
+ */
+@Slf4j
+public class WriteBehindSaver {
+    private final String name;
+    private final Runnable write;
+    private final long quietMillis;
+    private final long maxDelayNanos;
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Guarded by this
+    private long version = 0;
+    private long firstDirtyNanos;
+    private ScheduledFuture<?> pending;
+
+    // Only one write at a time, guarded by writeLock
+    private final Object writeLock = new Object();
+    private long savedVersion = 0;
+
+    public WriteBehindSaver(String name, Runnable write, long quietMillis, long maxDelayMillis) {
+        this.name = name;
+        this.write = write;
+        this.quietMillis = quietMillis;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "watchdog-save-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setKeepAliveTime(30, TimeUnit.SECONDS);
+        this.executor.allowCoreThreadTimeOut(true);
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Records that the model changed and schedules a write
+     */
+    public synchronized void markDirty() {
+        this.version++;
+        long now = System.nanoTime();
+        if (this.pending == null) {
+            this.firstDirtyNanos = now;
+        } else if (now - this.firstDirtyNanos >= this.maxDelayNanos) {
+            // Already waited long enough, the pending write will pick this edit up
+            return;
+        } else {
+            this.pending.cancel(false);
+        }
+        this.pending = this.executor.schedule(this::flush, this.quietMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes now, on the calling thread, if there are unsaved changes
+     */
+    public void flush() {
+        synchronized (this.writeLock) {
+            long version;
+            synchronized (this) {
+                if (this.pending != null) {
+                    this.pending.cancel(false);
+                    this.pending = null;
+                }
+                version = this.version;
+            }
+            if (version == this.savedVersion) {
+                return;
+            }
+
+            try {
+                this.write.run();
+                this.savedVersion = version;
+            } catch (ConcurrentModificationException e) {
+                log.debug("{} changed while saving, trying again", this.name);
+                this.markDirty();
+            } catch (RuntimeException e) {
+                // Also what a list being changed mid-resize looks like, and nobody would see it from the executor
+                log.warn("Unable to save {}, trying again", this.name, e);
+                this.markDirty();
+            }
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.alerts;
 
 import com.adamk33n3r.runelite.watchdog.TriggerType;
-import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 import com.adamk33n3r.runelite.watchdog.notifications.MessageNotification;
 import com.adamk33n3r.runelite.watchdog.notifications.Notification;
 
@@ -23,20 +22,13 @@ public abstract class Alert {
     private String name;
     private int debounceTime;
 
+    // Set whenever the alert is put into or taken out of a group
     @Nullable
     private transient AlertGroup parent;
-    public AlertGroup getParent() {
-        if (this.parent == null) {
-            this.parent = WatchdogPlugin.getInstance()
-                .getAlertManager()
-                .getAllAlertGroups()
-                .filter(alertGroup -> alertGroup.getAlerts().contains(this))
-                .findFirst()
-                .orElse(null);
-        }
 
-        return this.parent;
-    }
+    // Why the plugin disabled this alert, shown until it is enabled again
+    @Nullable
+    private transient String warning;
 
     @Setter(AccessLevel.PROTECTED)
     private List<Notification> notifications = new ArrayList<>();
@@ -46,6 +38,13 @@ public abstract class Alert {
         this.debounceTime = 0;
     }
 
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            this.warning = null;
+        }
+    }
+
     public TriggerType getType() {
         return Arrays.stream(TriggerType.values())
             .filter(tType -> tType.getImplClass() == this.getClass())
@@ -92,21 +91,6 @@ public abstract class Alert {
         this.notifications.add(newIdx, notification);
     }
 
-    @Nullable
-    public List<AlertGroup> getAncestors() {
-        if (this.parent == null) {
-            return null;
-        }
-
-        ArrayList<AlertGroup> ancestors = new ArrayList<>();
-        AlertGroup alertGroup = this.parent;
-        do {
-            ancestors.add(0, alertGroup);
-        } while ((alertGroup = alertGroup.getParent()) != null);
-
-        return ancestors;
-    }
-
     public List<String> getKeywords() {
         Stream<String> selfKeywords = Stream.of(
             this.getName(),
@@ -1,5 +1,8 @@
 package com.adamk33n3r.runelite.watchdog.alerts;
 
+import com.adamk33n3r.runelite.watchdog.CompiledPattern;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,6 +12,10 @@ public class ChatAlert extends Alert implements RegexMatcher {
     private String message = "";
     private boolean regexEnabled = false;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient CompiledPattern compiledPattern;
+
     @Override
     public String getPattern() {
         return this.message;
@@ -16,7 +23,26 @@ public class ChatAlert extends Alert implements RegexMatcher {
 
     @Override
     public void setPattern(String pattern) {
-        this.message = pattern;
+        this.setMessage(pattern);
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+        this.compiledPattern = null;
+    }
+
+    @Override
+    public void setRegexEnabled(boolean regexEnabled) {
+        this.regexEnabled = regexEnabled;
+        this.compiledPattern = null;
+    }
+
+    @Override
+    public CompiledPattern getCompiledPattern() {
+        if (this.compiledPattern == null) {
+            this.compiledPattern = CompiledPattern.compile(this.message, this.regexEnabled);
+        }
+        return this.compiledPattern;
     }
 
     public ChatAlert() {
@@ -1,5 +1,8 @@
 package com.adamk33n3r.runelite.watchdog.alerts;
 
+import com.adamk33n3r.runelite.watchdog.CompiledPattern;
+
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +15,10 @@ public class InventoryAlert extends Alert implements RegexMatcher {
     private boolean isRegexEnabled;
     private int itemQuantity;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient CompiledPattern compiledPattern;
+
     @Override
     public String getPattern() {
         return this.itemName;
@@ -19,7 +26,26 @@ public class InventoryAlert extends Alert implements RegexMatcher {
 
     @Override
     public void setPattern(String pattern) {
-        this.itemName = pattern;
+        this.setItemName(pattern);
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+        this.compiledPattern = null;
+    }
+
+    @Override
+    public void setRegexEnabled(boolean regexEnabled) {
+        this.isRegexEnabled = regexEnabled;
+        this.compiledPattern = null;
+    }
+
+    @Override
+    public CompiledPattern getCompiledPattern() {
+        if (this.compiledPattern == null) {
+            this.compiledPattern = CompiledPattern.compile(this.itemName, this.isRegexEnabled);
+        }
+        return this.compiledPattern;
     }
 
     public InventoryAlert() {
@@ -1,8 +1,15 @@
 package com.adamk33n3r.runelite.watchdog.alerts;
 
+import com.adamk33n3r.runelite.watchdog.CompiledPattern;
+
 public interface RegexMatcher {
     boolean isRegexEnabled();
     void setRegexEnabled(boolean regexEnabled);
     String getPattern();
     void setPattern(String pattern);
+
+    /**
+     * The compiled pattern, kept until the pattern or regex mode changes
+     */
+    CompiledPattern getCompiledPattern();
 }
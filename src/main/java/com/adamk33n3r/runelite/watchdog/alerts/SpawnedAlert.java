@@ -1,7 +1,9 @@
 package com.adamk33n3r.runelite.watchdog.alerts;
 
+import com.adamk33n3r.runelite.watchdog.CompiledPattern;
 import com.adamk33n3r.runelite.watchdog.Displayable;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,6 +16,10 @@ public class SpawnedAlert extends Alert implements RegexMatcher {
     private String spawnedName = "";
     private boolean regexEnabled = false;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient CompiledPattern compiledPattern;
+
     @Override
     public String getPattern() {
         return this.spawnedName;
@@ -21,7 +27,26 @@ public class SpawnedAlert extends Alert implements RegexMatcher {
 
     @Override
     public void setPattern(String pattern) {
-        this.spawnedName = pattern;
+        this.setSpawnedName(pattern);
+    }
+
+    public void setSpawnedName(String spawnedName) {
+        this.spawnedName = spawnedName;
+        this.compiledPattern = null;
+    }
+
+    @Override
+    public void setRegexEnabled(boolean regexEnabled) {
+        this.regexEnabled = regexEnabled;
+        this.compiledPattern = null;
+    }
+
+    @Override
+    public CompiledPattern getCompiledPattern() {
+        if (this.compiledPattern == null) {
+            this.compiledPattern = CompiledPattern.compile(this.spawnedName, this.regexEnabled);
+        }
+        return this.compiledPattern;
     }
 
     public SpawnedAlert() {
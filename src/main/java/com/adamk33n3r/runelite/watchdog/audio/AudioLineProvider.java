@@ -0,0 +1,19 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import javax.inject.Singleton;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Opens the line that sounds are played on. Tests swap this out for fake lines.
+ */
+@Singleton
+public class AudioLineProvider {
+    public SourceDataLine open(AudioFormat format, int bufferSize) throws LineUnavailableException {
+        SourceDataLine line = AudioSystem.getSourceDataLine(format);
+        line.open(format, bufferSize);
+        return line;
+    }
+}
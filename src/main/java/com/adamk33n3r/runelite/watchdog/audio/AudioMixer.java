@@ -0,0 +1,220 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mixes every playing sound into one line that stays open, so sounds overlap instead of each needing a line of
+ * their own. When there are more voices than the limit, the oldest of the lowest priority ones is stopped to make room,
+ * unless they are all more important than the new one. The mixing thread waits without using any CPU while nothing
+ * is playing.
+ */
+@Slf4j
+public class AudioMixer {
+    public static final AudioFormat OUTPUT_FORMAT = Pcm.format(44100, 2);
+    // About 12ms, new voices start at the next block
+    private static final int BLOCK_FRAMES = 512;
+    // How much is buffered ahead in the line, about 46ms
+    private static final int LINE_BUFFER_FRAMES = 2048;
+
+    private final AudioLineProvider lineProvider;
+    private final int maxVoices;
+
+    // Oldest first, guarded by this
+    private final List<Voice> voices = new ArrayList<>();
+    // Taken out of the mix by other threads. The mixer thread ends them once it's done with them, since it could be
+    // reading their sources at the time. Guarded by this.
+    private final List<Voice> removed = new ArrayList<>();
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public AudioMixer(AudioLineProvider lineProvider, int maxVoices) {
+        this.lineProvider = lineProvider;
+        this.maxVoices = maxVoices;
+    }
+
+    public synchronized void startUp() {
+        if (this.running) {
+            return;
+        }
+
+        this.running = true;
+        this.thread = new Thread(this::run, "watchdog-mixer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public synchronized void shutDown() {
+        if (!this.running) {
+            return;
+        }
+
+        // The mixer thread ends them on its way out
+        this.running = false;
+        this.removed.addAll(this.voices);
+        this.voices.clear();
+        this.notifyAll();
+    }
+
+    /**
+     * Starts playing a sound. The source is opened on the calling thread.
+     *
+     * @param gain the 0-10 gain that notifications use
+     * @param priority higher priority voices are kept over lower ones when there are too many
+     * @param looping whether to start the sound over when it ends, until {@link Voice#setLooping} turns it off
+     * @param onEnd called once the voice has finished, was stopped, or was stolen for another voice
+     */
+    public Voice play(Voice.SourceFactory sourceFactory, int gain, int priority, boolean looping, Runnable onEnd) throws IOException, UnsupportedAudioFileException {
+        Voice voice = new Voice(sourceFactory, OUTPUT_FORMAT, Pcm.gainFactor(gain), priority, onEnd);
+        voice.setLooping(looping);
+        synchronized (this) {
+            // The new voice was never mixed, so it can be ended here
+            if (!this.running) {
+                voice.end();
+                return voice;
+            }
+            if (this.voices.size() >= this.maxVoices) {
+                Voice stolen = this.lowestPriorityVoice();
+                if (stolen.getPriority() > priority) {
+                    log.debug("Too many more important sounds playing, skipping this one");
+                    voice.end();
+                    return voice;
+                }
+                log.debug("Too many sounds playing, stopping the oldest of the least important ones");
+                this.voices.remove(stolen);
+                stolen.stop();
+                this.removed.add(stolen);
+            }
+            this.voices.add(voice);
+            this.notifyAll();
+        }
+        return voice;
+    }
+
+    private Voice lowestPriorityVoice() {
+        Voice lowest = this.voices.get(0);
+        for (Voice voice : this.voices) {
+            // Oldest first, so ties go to the oldest
+            if (voice.getPriority() < lowest.getPriority()) {
+                lowest = voice;
+            }
+        }
+        return lowest;
+    }
+
+    public synchronized int getVoiceCount() {
+        return this.voices.size();
+    }
+
+    private void run() {
+        int[] mix = new int[BLOCK_FRAMES * 2];
+        byte[] output = new byte[BLOCK_FRAMES * OUTPUT_FORMAT.getFrameSize()];
+        List<Voice> playing = new ArrayList<>();
+        List<Voice> finished = new ArrayList<>();
+        SourceDataLine line = null;
+        boolean lineStarted = false;
+
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (this.running && this.voices.isEmpty() && this.removed.isEmpty() && !lineStarted) {
+                        this.wait();
+                    }
+                    if (!this.running) {
+                        return;
+                    }
+                    playing.clear();
+                    playing.addAll(this.voices);
+                    finished.addAll(this.removed);
+                    this.removed.clear();
+                }
+                // Nothing is reading from these anymore now that the last block is written
+                if (!finished.isEmpty()) {
+                    finished.forEach(Voice::end);
+                    finished.clear();
+                }
+
+                if (playing.isEmpty()) {
+                    if (lineStarted) {
+                        // Let what's buffered finish and then go back to waiting
+                        line.drain();
+                        line.stop();
+                        lineStarted = false;
+                    }
+                    continue;
+                }
+
+                if (line == null) {
+                    try {
+                        line = this.lineProvider.open(OUTPUT_FORMAT, LINE_BUFFER_FRAMES * OUTPUT_FORMAT.getFrameSize());
+                    } catch (LineUnavailableException | IllegalArgumentException e) {
+                        log.warn("Unable to open a line to play sounds on", e);
+                        this.endAll(playing);
+                        continue;
+                    }
+                }
+                if (!lineStarted) {
+                    line.start();
+                    lineStarted = true;
+                }
+
+                Arrays.fill(mix, 0);
+                for (Voice voice : playing) {
+                    boolean alive;
+                    try {
+                        alive = voice.mix(mix, BLOCK_FRAMES);
+                    } catch (IOException | UnsupportedAudioFileException e) {
+                        log.warn("Unable to play sound", e);
+                        alive = false;
+                    }
+                    if (!alive) {
+                        finished.add(voice);
+                    }
+                }
+                if (!finished.isEmpty()) {
+                    this.endAll(finished);
+                    finished.clear();
+                }
+
+                for (int i = 0; i < mix.length; i++) {
+                    int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                    output[i * 2] = (byte) sample;
+                    output[i * 2 + 1] = (byte) (sample >> 8);
+                }
+                line.write(output, 0, output.length);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            List<Voice> remaining;
+            synchronized (this) {
+                remaining = new ArrayList<>(this.removed);
+                remaining.addAll(this.voices);
+                this.removed.clear();
+                this.voices.clear();
+            }
+            remaining.forEach(Voice::end);
+            if (line != null) {
+                line.stop();
+                line.flush();
+                line.close();
+            }
+        }
+    }
+
+    // Only on the mixer thread
+    private void endAll(List<Voice> ended) {
+        synchronized (this) {
+            this.voices.removeAll(ended);
+        }
+        ended.forEach(Voice::end);
+    }
+}
@@ -0,0 +1,41 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Anything Java Sound can read itself, like WAV, converted to 16 bit PCM at its own rate with {@link Pcm#format}
+ */
+class AudioStreamPcmSource implements PcmSource {
+    private final AudioInputStream stream;
+
+    AudioStreamPcmSource(InputStream in) throws IOException, UnsupportedAudioFileException {
+        AudioInputStream stream = AudioSystem.getAudioInputStream(in);
+        AudioFormat format = Pcm.format(stream.getFormat().getSampleRate(), stream.getFormat().getChannels());
+        if (!stream.getFormat().matches(format)) {
+            stream = AudioSystem.getAudioInputStream(format, stream);
+        }
+        this.stream = stream;
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return this.stream.getFormat();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        // Only read whole frames
+        int frameSize = this.stream.getFormat().getFrameSize();
+        return this.stream.read(buffer, offset, length - length % frameSize);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.stream.close();
+    }
+}
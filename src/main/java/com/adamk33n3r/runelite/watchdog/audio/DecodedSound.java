@@ -0,0 +1,66 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A whole sound file decoded into memory, along with what the file looked like when it was decoded
+ */
+@Getter
+@RequiredArgsConstructor
+public class DecodedSound {
+    private final AudioFormat format;
+    private final byte[] data;
+    private final long lastModified;
+    private final long fileLength;
+
+    public static DecodedSound decode(File file) throws IOException, UnsupportedAudioFileException {
+        long lastModified = file.lastModified();
+        long fileLength = file.length();
+        try (PcmSource source = PcmSource.open(file)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(fileLength, Integer.MAX_VALUE));
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = source.read(buffer, 0, buffer.length)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new DecodedSound(source.getFormat(), out.toByteArray(), lastModified, fileLength);
+        }
+    }
+
+    public boolean isCurrent(File file) {
+        return file.lastModified() == this.lastModified && file.length() == this.fileLength;
+    }
+
+    public PcmSource open() {
+        return new PcmSource() {
+            private int position = 0;
+
+            @Override
+            public AudioFormat getFormat() {
+                return DecodedSound.this.format;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (this.position >= DecodedSound.this.data.length) {
+                    return -1;
+                }
+                int read = Math.min(length, DecodedSound.this.data.length - this.position);
+                System.arraycopy(DecodedSound.this.data, this.position, buffer, offset, read);
+                this.position += read;
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
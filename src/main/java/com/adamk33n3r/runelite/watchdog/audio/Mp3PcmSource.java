@@ -0,0 +1,89 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import jaco.mp3.resources.Decoder;
+import jaco.mp3.resources.Frame;
+import jaco.mp3.resources.JavaLayerException;
+import jaco.mp3.resources.SampleBuffer;
+import jaco.mp3.resources.SoundStream;
+
+import javax.sound.sampled.AudioFormat;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes an MP3 a frame at a time with the decoder that comes with jaco
+ */
+class Mp3PcmSource implements PcmSource {
+    private final InputStream in;
+    private final SoundStream stream;
+    private final Decoder decoder = new Decoder();
+    private AudioFormat format;
+
+    // The decoded frame that is being read
+    private byte[] frame = new byte[0];
+    private int frameOffset = 0;
+    private int frameLength = 0;
+
+    Mp3PcmSource(InputStream in) throws IOException {
+        this.in = in;
+        this.stream = new SoundStream(in);
+        // The format comes from the first frame
+        if (!this.decodeFrame()) {
+            throw new IOException("No MP3 frames found");
+        }
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return this.format;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (this.frameOffset == this.frameLength && !this.decodeFrame()) {
+            return -1;
+        }
+
+        int read = Math.min(length, this.frameLength - this.frameOffset);
+        System.arraycopy(this.frame, this.frameOffset, buffer, offset, read);
+        this.frameOffset += read;
+        return read;
+    }
+
+    private boolean decodeFrame() throws IOException {
+        try {
+            Frame header = this.stream.readFrame();
+            if (header == null) {
+                return false;
+            }
+            if (this.format == null) {
+                this.format = Pcm.format(header.frequency(), header.mode() == Frame.SINGLE_CHANNEL ? 1 : 2);
+            }
+
+            SampleBuffer output = (SampleBuffer) this.decoder.decodeFrame(header, this.stream);
+            this.stream.closeFrame();
+
+            int samples = output.getBufferLength();
+            if (this.frame.length < samples * 2) {
+                this.frame = new byte[samples * 2];
+            }
+            Pcm.toBytes(output.getBuffer(), samples, this.frame);
+            this.frameOffset = 0;
+            this.frameLength = samples * 2;
+            return true;
+        } catch (JavaLayerException e) {
+            throw new IOException("Unable to decode MP3", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.stream.close();
+        } catch (JavaLayerException e) {
+            throw new IOException(e);
+        } finally {
+            this.in.close();
+        }
+    }
+}
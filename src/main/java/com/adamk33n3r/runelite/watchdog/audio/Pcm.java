@@ -0,0 +1,30 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import com.adamk33n3r.runelite.watchdog.Util;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Everything is played as signed 16 bit little endian PCM, in whatever sample rate and channels the file has
+ */
+public class Pcm {
+    public static AudioFormat format(float sampleRate, int channels) {
+        return new AudioFormat(sampleRate, 16, channels, true, false);
+    }
+
+    /**
+     * Maps the 0-10 gain that notifications use to a linear factor, through the same -25dB to +5dB range that the
+     * clip's gain control used to be set to
+     */
+    public static float gainFactor(int gain) {
+        int decibels = Util.scale(gain, 0, 10, -25, 5);
+        return (float) Math.pow(10, decibels / 20.0);
+    }
+
+    public static void toBytes(short[] samples, int count, byte[] out) {
+        for (int i = 0; i < count; i++) {
+            out[i * 2] = (byte) samples[i];
+            out[i * 2 + 1] = (byte) (samples[i] >> 8);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the most recently played sounds decoded, up to a memory cap, so sounds that repeat a lot don't read and
+ * decode the file every time. A changed file is decoded again. Sounds can also be preloaded before they are first
+ * played.
+ */
+@Slf4j
+public class PcmCache {
+    // Files bigger than this are streamed instead, decoded they would push everything else out anyway
+    private static final long MAX_FILE_BYTES = 2 * 1024 * 1024;
+
+    @Getter
+    private final long maxBytes;
+    // Access ordered so that the least recently played sound is the one that gets evicted. Guarded by this.
+    private final Map<String, DecodedSound> sounds = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> preloaded = new HashSet<>();
+    private long bytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    // Plays that used a sound that was preloaded
+    private long preloadHits = 0;
+
+    public PcmCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the decoded sound, or null if it is too big to cache and should be streamed
+     */
+    @Nullable
+    public DecodedSound get(File file) throws IOException, UnsupportedAudioFileException {
+        String key = file.getAbsolutePath();
+        synchronized (this) {
+            DecodedSound sound = this.sounds.get(key);
+            if (sound != null && sound.isCurrent(file)) {
+                this.hits++;
+                if (this.preloaded.contains(key)) {
+                    this.preloadHits++;
+                }
+                return sound;
+            }
+            this.misses++;
+        }
+
+        if (file.length() > MAX_FILE_BYTES) {
+            return null;
+        }
+        // Decoded without holding the lock so other sounds can still be looked up
+        DecodedSound sound = DecodedSound.decode(file);
+        this.put(key, sound);
+        return sound;
+    }
+
+    /**
+     * Decodes the sound into the cache if it isn't already, without counting it as played
+     *
+     * @return the decoded sound, or null if it is too big to cache
+     */
+    @Nullable
+    public DecodedSound preload(File file) throws IOException, UnsupportedAudioFileException {
+        String key = file.getAbsolutePath();
+        synchronized (this) {
+            DecodedSound sound = this.sounds.get(key);
+            if (sound != null && sound.isCurrent(file)) {
+                this.preloaded.add(key);
+                return sound;
+            }
+        }
+
+        if (file.length() > MAX_FILE_BYTES) {
+            return null;
+        }
+        DecodedSound sound = DecodedSound.decode(file);
+        synchronized (this) {
+            if (!this.put(key, sound)) {
+                return null;
+            }
+            this.preloaded.add(key);
+        }
+        return sound;
+    }
+
+    /**
+     * @return false if the sound was too big to cache
+     */
+    private synchronized boolean put(String key, DecodedSound sound) {
+        DecodedSound previous = this.sounds.remove(key);
+        if (previous != null) {
+            this.bytes -= previous.getData().length;
+            this.preloaded.remove(key);
+        }
+        // A single sound shouldn't be able to empty the whole cache
+        if (sound.getData().length > this.maxBytes / 4) {
+            return false;
+        }
+
+        this.sounds.put(key, sound);
+        this.bytes += sound.getData().length;
+        Iterator<Map.Entry<String, DecodedSound>> eldest = this.sounds.entrySet().iterator();
+        while (this.bytes > this.maxBytes && eldest.hasNext()) {
+            Map.Entry<String, DecodedSound> entry = eldest.next();
+            this.bytes -= entry.getValue().getData().length;
+            this.preloaded.remove(entry.getKey());
+            eldest.remove();
+        }
+        log.debug("Cached {}, {} sounds using {}KB", key, this.sounds.size(), this.bytes / 1024);
+        return this.sounds.containsKey(key);
+    }
+
+    public synchronized void clear() {
+        this.sounds.clear();
+        this.preloaded.clear();
+        this.bytes = 0;
+    }
+
+    /**
+     * @return the fraction of plays that used a sound that was preloaded
+     */
+    public synchronized double getPreloadHitRate() {
+        long plays = this.hits + this.misses;
+        return plays == 0 ? 0 : (double) this.preloadHits / plays;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A sound decoded to {@link Pcm} samples, read a chunk at a time
+ */
+public interface PcmSource extends Closeable {
+    AudioFormat getFormat();
+
+    /**
+     * @return the number of bytes read, or -1 at the end of the sound
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException;
+
+    static PcmSource open(File file) throws IOException, UnsupportedAudioFileException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            if (file.getName().endsWith(".mp3")) {
+                return new Mp3PcmSource(in);
+            }
+            return new AudioStreamPcmSource(in);
+        } catch (IOException | UnsupportedAudioFileException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.adamk33n3r.runelite.watchdog.audio;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One sound being played by the {@link AudioMixer}. Converts the source to the mixer's rate and channels as it is
+ * mixed, and starts it over when it ends for as long as it is looping.
+ */
+public class Voice {
+    public interface SourceFactory {
+        PcmSource open() throws IOException, UnsupportedAudioFileException;
+    }
+
+    private static final int CHUNK_FRAMES = 1024;
+
+    private final SourceFactory sourceFactory;
+    private PcmSource source;
+    private final int channels;
+    // How far to move through the source for each frame of output
+    private final double step;
+    private final float gain;
+    @Getter
+    private final int priority;
+    private final Runnable onEnd;
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+
+    @Getter
+    @Setter
+    private volatile boolean looping = false;
+    @Getter
+    private volatile boolean stopped = false;
+
+    // Only touched by the mixer thread
+    private final byte[] bytes;
+    private final short[] frames;
+    private int frameCount = 0;
+    private double position = 0;
+    private boolean sourceEnded = false;
+
+    Voice(SourceFactory sourceFactory, AudioFormat outputFormat, float gain, int priority, Runnable onEnd) throws IOException, UnsupportedAudioFileException {
+        this.sourceFactory = sourceFactory;
+        this.source = sourceFactory.open();
+        AudioFormat format = this.source.getFormat();
+        this.channels = format.getChannels();
+        this.step = format.getSampleRate() / outputFormat.getSampleRate();
+        this.gain = gain;
+        this.priority = priority;
+        this.onEnd = onEnd;
+        this.bytes = new byte[CHUNK_FRAMES * this.channels * 2];
+        this.frames = new short[(CHUNK_FRAMES + 1) * this.channels];
+    }
+
+    /**
+     * Stops the voice the next time it would be mixed
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Adds the next stereo frames of this voice to the mix
+     *
+     * @return false once the voice has finished
+     */
+    boolean mix(int[] mix, int outputFrames) throws IOException, UnsupportedAudioFileException {
+        if (this.stopped) {
+            return false;
+        }
+
+        for (int i = 0; i < outputFrames; i++) {
+            int index = (int) this.position;
+            // Interpolating needs the frame after this one too
+            while (index + 1 >= this.frameCount && !this.sourceEnded) {
+                this.refill();
+                index = (int) this.position;
+            }
+            if (index >= this.frameCount) {
+                return false;
+            }
+
+            double fraction = this.position - index;
+            int next = Math.min(index + 1, this.frameCount - 1);
+            for (int channel = 0; channel < 2; channel++) {
+                // Mono plays on both sides
+                int sourceChannel = Math.min(channel, this.channels - 1);
+                int a = this.frames[index * this.channels + sourceChannel];
+                int b = this.frames[next * this.channels + sourceChannel];
+                mix[i * 2 + channel] += (int) ((a + (b - a) * fraction) * this.gain);
+            }
+            this.position += this.step;
+        }
+        return true;
+    }
+
+    private void refill() throws IOException, UnsupportedAudioFileException {
+        // Drop the frames that have been played, keeping the current one
+        int played = Math.min((int) this.position, this.frameCount);
+        System.arraycopy(this.frames, played * this.channels, this.frames, 0, (this.frameCount - played) * this.channels);
+        this.frameCount -= played;
+        this.position -= played;
+
+        int frameSize = this.channels * 2;
+        int space = (this.frames.length / this.channels - this.frameCount) * frameSize;
+        int read = this.source.read(this.bytes, 0, Math.min(space, this.bytes.length));
+        if (read <= 0 && this.looping && !this.stopped) {
+            this.source.close();
+            this.source = this.sourceFactory.open();
+            read = this.source.read(this.bytes, 0, Math.min(space, this.bytes.length));
+        }
+        if (read <= 0) {
+            this.sourceEnded = true;
+            return;
+        }
+
+        int readFrames = read / frameSize;
+        for (int i = 0; i < readFrames * this.channels; i++) {
+            this.frames[this.frameCount * this.channels + i] = (short) ((this.bytes[i * 2] & 0xFF) | (this.bytes[i * 2 + 1] << 8));
+        }
+        this.frameCount += readFrames;
+    }
+
+    /**
+     * Closes the source and lets whoever started the voice know that it's done. Only does anything the first time.
+     * Only the mixer thread may call this once the voice has been mixed, other threads {@link #stop()} it instead.
+     */
+    void end() {
+        if (!this.ended.compareAndSet(false, true)) {
+            return;
+        }
+
+        this.stopped = true;
+        try {
+            this.source.close();
+        } catch (IOException ignored) {
+        }
+        this.onEnd.run();
+    }
+}
@@ -1,5 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
+import com.adamk33n3r.runelite.watchdog.SoundPriority;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 
 import lombok.Getter;
@@ -13,6 +14,9 @@ public abstract class AudioNotification extends Notification implements IAudioNo
     @Getter
     @Setter
     protected int gain = 8;
+    @Getter
+    @Setter
+    protected SoundPriority priority = SoundPriority.NORMAL;
 
     @Inject
     public AudioNotification(WatchdogConfig config) {
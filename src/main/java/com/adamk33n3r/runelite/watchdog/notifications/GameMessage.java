@@ -1,6 +1,5 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
-import com.adamk33n3r.runelite.watchdog.Util;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 
@@ -30,7 +29,7 @@ public class GameMessage extends MessageNotification {
     protected void fireImpl(String[] triggerValues) {
         final String formattedMessage = new ChatMessageBuilder()
             .append(ChatColorType.HIGHLIGHT)
-            .append(Util.processTriggerValues(this.message, triggerValues))
+            .append(this.processMessage(triggerValues))
             .build();
         this.chatMessageManager.queue(QueuedMessage.builder()
             .type(ChatMessageType.CONSOLE)
@@ -1,6 +1,10 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
+import com.adamk33n3r.runelite.watchdog.SoundPriority;
+
 public interface IAudioNotification extends INotification {
     int getGain();
     void setGain(int gain);
+    SoundPriority getPriority();
+    void setPriority(SoundPriority priority);
 }
@@ -1,5 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
+import com.adamk33n3r.runelite.watchdog.MessageTemplate;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 
 import lombok.Getter;
@@ -13,9 +14,26 @@ public abstract class MessageNotification extends Notification implements IMessa
     @Getter
     @Setter
     protected String message = "";
+    // Parsed again whenever the message is changed
+    private transient MessageTemplate messageTemplate;
 
     @Inject
     public MessageNotification(WatchdogConfig config) {
         super(config);
     }
+
+    /**
+     * @return the message with the placeholders filled in with the trigger values
+     */
+    public String processMessage(String[] triggerValues) {
+        if (this.message == null) {
+            return null;
+        }
+
+        MessageTemplate template = this.messageTemplate;
+        if (template == null || !template.isFor(this.message)) {
+            template = this.messageTemplate = MessageTemplate.parse(this.message);
+        }
+        return template.render(triggerValues);
+    }
 }
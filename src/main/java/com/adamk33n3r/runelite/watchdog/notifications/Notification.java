@@ -1,6 +1,7 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
 import com.adamk33n3r.runelite.watchdog.AlertManager;
+import com.adamk33n3r.runelite.watchdog.NotificationDispatcher;
 import com.adamk33n3r.runelite.watchdog.NotificationType;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 import com.adamk33n3r.runelite.watchdog.alerts.Alert;
@@ -30,6 +31,9 @@ public abstract class Notification implements INotification {
     @Inject
     protected transient WatchdogConfig watchdogConfig;
 
+    @Inject
+    protected transient NotificationDispatcher notificationDispatcher;
+
     @Getter @Setter
     private boolean fireWhenFocused = true;
 
@@ -66,10 +70,17 @@ public abstract class Notification implements INotification {
     @Override
     public void fire(String[] triggerValues) {
         if (this.shouldFire()) {
-            new Thread(() -> this.fireImpl(triggerValues)).start();
+            this.notificationDispatcher.dispatch(this.getLane(), () -> this.fireImpl(triggerValues));
         }
     }
 
+    /**
+     * Notifications that can block for a while, like on network or file I/O, should fire on the blocking lane
+     */
+    protected NotificationDispatcher.Lane getLane() {
+        return NotificationDispatcher.Lane.FAST;
+    }
+
     public void fireForced(String[] triggerValues) {
         this.fireImpl(triggerValues);
     }
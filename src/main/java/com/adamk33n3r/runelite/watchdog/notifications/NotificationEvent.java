@@ -1,7 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
 import com.adamk33n3r.runelite.watchdog.EventHandler;
-import com.adamk33n3r.runelite.watchdog.Util;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 
 import lombok.NoArgsConstructor;
@@ -20,6 +19,6 @@ public class NotificationEvent extends MessageNotification {
 
     @Override
     protected void fireImpl(String[] triggerValues) {
-        this.eventHandler.notify(Util.processTriggerValues(this.message, triggerValues));
+        this.eventHandler.notify(this.processMessage(triggerValues));
     }
 }
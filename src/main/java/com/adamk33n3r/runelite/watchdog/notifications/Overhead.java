@@ -1,6 +1,5 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
-import com.adamk33n3r.runelite.watchdog.Util;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 
 import net.runelite.api.Client;
@@ -34,7 +33,7 @@ public class Overhead extends MessageNotification {
 
     @Override
     protected void fireImpl(String[] triggerValues) {
-        String message = Util.processTriggerValues(this.message, triggerValues);
+        String message = this.processMessage(triggerValues);
         Player localPlayer = this.client.getLocalPlayer();
         if (localPlayer == null) {
             return;
@@ -1,6 +1,5 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
-import com.adamk33n3r.runelite.watchdog.Util;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 
@@ -37,7 +36,7 @@ public class Overlay extends MessageNotification {
     @Override
     protected void fireImpl(String[] triggerValues) {
         WatchdogPlugin.getInstance().getNotificationOverlay()
-            .add(this, Util.processTriggerValues(this.message, triggerValues));
+            .add(this, this.processMessage(triggerValues));
     }
 
     @Override
@@ -1,9 +1,11 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
-import com.adamk33n3r.runelite.watchdog.Util;
+import com.adamk33n3r.runelite.watchdog.MessageTemplate;
+import com.adamk33n3r.runelite.watchdog.NotificationDispatcher;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -19,6 +21,10 @@ import java.io.File;
 public class Sound extends AudioNotification {
     private String path;
     private int repeatDuration = 0;
+    // Parsed again whenever the path is changed
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient MessageTemplate pathTemplate;
 
     @Inject
     public Sound(WatchdogConfig config) {
@@ -27,10 +33,20 @@ public class Sound extends AudioNotification {
         this.path = config.defaultSoundPath();
     }
 
+    @Override
+    protected NotificationDispatcher.Lane getLane() {
+        // Sounds that aren't queued are read and decoded when they fire
+        return NotificationDispatcher.Lane.BLOCKING;
+    }
+
     @Override
     protected void fireImpl(String[] triggerValues) {
-        String processedPath = Util.processTriggerValues(path, triggerValues);
-        WatchdogPlugin.getInstance().getSoundPlayer().play(new File(processedPath), gain, repeatDuration);
+        MessageTemplate template = this.pathTemplate;
+        if (template == null || !template.isFor(this.path)) {
+            template = this.pathTemplate = MessageTemplate.parse(this.path);
+        }
+        String processedPath = template.render(triggerValues);
+        WatchdogPlugin.getInstance().getSoundPlayer().play(new File(processedPath), this.gain, this.repeatDuration, this.priority, this.getAlert());
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
-import com.adamk33n3r.runelite.watchdog.Util;
+import com.adamk33n3r.runelite.watchdog.NotificationDispatcher;
+import com.adamk33n3r.runelite.watchdog.SoundPriority;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 import com.adamk33n3r.runelite.watchdog.elevenlabs.ElevenLabs;
@@ -18,6 +19,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLEncoder;
@@ -30,6 +32,7 @@ import static net.runelite.client.RuneLite.CACHE_DIR;
 @NoArgsConstructor
 public class TextToSpeech extends MessageNotification implements IAudioNotification {
     private int gain = 5;
+    private SoundPriority priority = SoundPriority.NORMAL;
     private int rate = 1;
     @SerializedName("voice")
     private Voice legacyVoice = Voice.GEORGE;
@@ -46,42 +49,44 @@ public class TextToSpeech extends MessageNotification implements IAudioNotificat
         this.source = config.defaultTTSSource();
     }
 
+    @Override
+    protected NotificationDispatcher.Lane getLane() {
+        return NotificationDispatcher.Lane.BLOCKING;
+    }
+
     @Override
     protected void fireImpl(String[] triggerValues) {
         if (!WatchdogPlugin.getInstance().getConfig().ttsEnabled()) {
             return;
         }
 
-        String processedMessage = Util.processTriggerValues(this.message, triggerValues);
+        String processedMessage = this.processMessage(triggerValues);
 
         try {
             String encodedMessage = URLEncoder.encode(processedMessage, "UTF-8");
-            File watchdogPath = new File(CACHE_DIR, "watchdog");
+            File soundFile = this.getCacheFile(processedMessage);
             //noinspection ResultOfMethodCallIgnored
-            watchdogPath.mkdirs();
+            soundFile.getParentFile().mkdirs();
 
             if (this.source == TTSSource.ELEVEN_LABS) {
-                File soundFile = new File(watchdogPath, String.format("el-%s-%s.mp3", encodedMessage, this.elevenLabsVoiceId));
                 if (soundFile.exists()) {
                     log.debug("Using cached file");
-                    WatchdogPlugin.getInstance().getSoundPlayer().play(soundFile, this.gain);
+                    WatchdogPlugin.getInstance().getSoundPlayer().play(soundFile, this.gain, 0, this.priority, this.getAlert());
                     return;
                 }
                 log.debug("generating tts");
                 ElevenLabs.generateTTS(WatchdogPlugin.getInstance().getHttpClient(), this.elevenLabsVoice, processedMessage, (file) -> {
                     try {
                         Files.move(file.toPath(), soundFile.toPath());
-                        WatchdogPlugin.getInstance().getSoundPlayer().play(soundFile, this.gain);
+                        WatchdogPlugin.getInstance().getSoundPlayer().play(soundFile, this.gain, 0, this.priority, this.getAlert());
                     } catch (IOException e) {
                         log.error("Could not move tmp file to cache, playing from tmp", e);
-                        WatchdogPlugin.getInstance().getSoundPlayer().play(file, this.gain);
+                        WatchdogPlugin.getInstance().getSoundPlayer().play(file, this.gain, 0, this.priority, this.getAlert());
                     }
                 });
                 return;
             }
 
-            File soundFile = new File(watchdogPath, String.format("%s-%d-%d.wav", encodedMessage, this.rate, this.legacyVoice.id));
-
             // If the cache file exists, load and play it. Else fetch it from the server and cache it.
             if (soundFile.exists()) {
                 log.debug("Using cached file");
@@ -99,12 +104,24 @@ public class TextToSpeech extends MessageNotification implements IAudioNotificat
                     fileOutputStream.write(bytes);
                 }
             }
-            WatchdogPlugin.getInstance().getSoundPlayer().play(soundFile, this.gain);
+            WatchdogPlugin.getInstance().getSoundPlayer().play(soundFile, this.gain, 0, this.priority, this.getAlert());
         } catch (Exception ex) {
             log.error("Exception occurred while playing text to speech", ex);
         }
     }
 
+    /**
+     * @return where the speech for the message is cached, whether or not it has been generated yet
+     */
+    public File getCacheFile(String processedMessage) throws UnsupportedEncodingException {
+        String encodedMessage = URLEncoder.encode(processedMessage, "UTF-8");
+        File watchdogPath = new File(CACHE_DIR, "watchdog");
+        if (this.source == TTSSource.ELEVEN_LABS) {
+            return new File(watchdogPath, String.format("el-%s-%s.mp3", encodedMessage, this.elevenLabsVoiceId));
+        }
+        return new File(watchdogPath, String.format("%s-%d-%d.wav", encodedMessage, this.rate, this.legacyVoice.id));
+    }
+
     @Override
     public void setDefaults() {
         super.setDefaults();
@@ -1,6 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.notifications;
 
-import com.adamk33n3r.runelite.watchdog.Util;
+import com.adamk33n3r.runelite.watchdog.NotificationDispatcher;
 import com.adamk33n3r.runelite.watchdog.WatchdogConfig;
 
 import lombok.NoArgsConstructor;
@@ -17,12 +17,17 @@ public class TrayNotification extends MessageNotification {
         super(config);
     }
 
+    @Override
+    protected NotificationDispatcher.Lane getLane() {
+        return NotificationDispatcher.Lane.BLOCKING;
+    }
+
     @Override
     protected void fireImpl(String[] triggerValues) {
         if (this.clientUI.getTrayIcon() != null) {
             this.clientUI.getTrayIcon().displayMessage(
                 "Watchdog",
-                Util.processTriggerValues(this.message, triggerValues),
+                this.processMessage(triggerValues),
                 TrayIcon.MessageType.NONE);
         }
     }
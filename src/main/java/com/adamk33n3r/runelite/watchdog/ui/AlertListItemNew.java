@@ -116,6 +116,14 @@ public class AlertListItemNew extends JPanel {
         nameLabel.setToolTipText(this.alert.getName());
         nameWrapper.add(nameLabel);
 
+        if (this.alert.getWarning() != null) {
+            nameLabel.setForeground(ColorScheme.PROGRESS_ERROR_COLOR);
+            final JLabel warningLabel = new JLabel("<html>" + this.alert.getWarning() + "</html>");
+            warningLabel.setForeground(ColorScheme.PROGRESS_ERROR_COLOR);
+            warningLabel.setBorder(new EmptyBorder(0, 10, 5, 10));
+            container.add(warningLabel);
+        }
+
         topWrapper.addMouseListener(this.mouseDragEventForwarder);
         topWrapper.addMouseMotionListener(this.mouseDragEventForwarder);
         nameWrapper.addMouseListener(this.mouseDragEventForwarder);
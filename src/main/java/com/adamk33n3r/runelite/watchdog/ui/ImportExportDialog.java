@@ -1,5 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.ui;
 
+import com.adamk33n3r.runelite.watchdog.AlertManager;
 import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 import com.adamk33n3r.runelite.watchdog.alerts.Alert;
 import com.adamk33n3r.runelite.watchdog.ui.panels.PanelUtils;
@@ -16,14 +17,19 @@ import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionListener;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
 @Slf4j
 public class ImportExportDialog extends JDialog {
     // Import
-    public ImportExportDialog(Component parent, BiFunction<String, Boolean, Boolean> onImport) {
+    public ImportExportDialog(Component parent, BiFunction<AlertManager.ParsedImport, Boolean, Boolean> onImport) {
         this.setTitle("Import");
         this.setSize(500, 250);
         this.setLocationRelativeTo(parent);
@@ -40,20 +46,53 @@ public class ImportExportDialog extends JDialog {
         JScrollPane scrollPane = new JScrollPane(textArea);
         wrapper.add(scrollPane, BorderLayout.CENTER);
 
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+
         JPanel btnGroup = new JPanel(new GridLayout(1, 0, 25, 0));
         Function<Boolean, ActionListener> importAlertFn = append -> ev -> {
             if (!append && JOptionPane.showConfirmDialog(this, "Are you sure you wish to overwrite your alerts?", "Confirm Overwrite?", JOptionPane.YES_NO_OPTION) == JOptionPane.NO_OPTION) {
                 return;
             }
             String json = textArea.getText();
-            try {
-                if (onImport.apply(json, append)) {
-                    this.setVisible(false);
-                }
-            } catch (Exception ex) {
-                log.error("Error parsing json: " + ex);
-                JOptionPane.showMessageDialog(this, "There was an error parsing the alert json", "Error parsing JSON", JOptionPane.ERROR_MESSAGE);
+            if (json.isEmpty()) {
+                return;
             }
+
+            textArea.setEnabled(false);
+            setButtonsEnabled(btnGroup, false);
+            progressBar.setValue(0);
+            progressBar.setVisible(true);
+            // Big imports take a while to parse, so do it in the background and only add them on the EDT
+            new SwingWorker<AlertManager.ParsedImport, Integer>() {
+                @Override
+                protected AlertManager.ParsedImport doInBackground() {
+                    WatchdogPlugin plugin = WatchdogPlugin.getInstance();
+                    Reader reader = new ProgressReader(new StringReader(json), json.length(), percent -> this.publish(percent));
+                    return plugin.getAlertManager().parseImport(reader, true, plugin.getConfig().overrideImportsWithDefaults());
+                }
+
+                @Override
+                protected void process(List<Integer> percents) {
+                    progressBar.setValue(percents.get(percents.size() - 1));
+                }
+
+                @Override
+                protected void done() {
+                    progressBar.setVisible(false);
+                    textArea.setEnabled(true);
+                    setButtonsEnabled(btnGroup, true);
+                    try {
+                        if (onImport.apply(this.get(), append)) {
+                            ImportExportDialog.this.setVisible(false);
+                        }
+                    } catch (Exception ex) {
+                        log.error("Error parsing json: " + ex);
+                        JOptionPane.showMessageDialog(ImportExportDialog.this, "There was an error parsing the alert json", "Error parsing JSON", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
         };
         JButton importOverwriteBtn = new JButton("Import (Overwrite)");
         importOverwriteBtn.addActionListener(importAlertFn.apply(false));
@@ -66,7 +105,11 @@ public class ImportExportDialog extends JDialog {
             this.setVisible(false);
         });
         btnGroup.add(closeBtn);
-        wrapper.add(btnGroup, BorderLayout.SOUTH);
+
+        JPanel bottom = new JPanel(new BorderLayout(0, 5));
+        bottom.add(progressBar, BorderLayout.NORTH);
+        bottom.add(btnGroup, BorderLayout.SOUTH);
+        wrapper.add(bottom, BorderLayout.SOUTH);
     }
 
     // Export
@@ -126,9 +169,58 @@ public class ImportExportDialog extends JDialog {
         wrapper.add(scrollPane, BorderLayout.CENTER);
     }
 
+    private static void setButtonsEnabled(JPanel panel, boolean enabled) {
+        for (Component component : panel.getComponents()) {
+            component.setEnabled(enabled);
+        }
+    }
+
     private JPanel createWrapper() {
         JPanel wrapper = new JPanel(new BorderLayout(5, 5));
         wrapper.setBorder(new EmptyBorder(10, 10, 10, 10));
         return wrapper;
     }
+
+    /**
+     * Reports how much of the JSON has been read as a percentage
+     */
+    private static class ProgressReader extends FilterReader {
+        private final long length;
+        private final IntConsumer onProgress;
+        private long read = 0;
+        private int lastPercent = -1;
+
+        ProgressReader(Reader in, long length, IntConsumer onProgress) {
+            super(in);
+            this.length = Math.max(length, 1);
+            this.onProgress = onProgress;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c != -1) {
+                this.advance(1);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            int n = super.read(cbuf, off, len);
+            if (n > 0) {
+                this.advance(n);
+            }
+            return n;
+        }
+
+        private void advance(int n) {
+            this.read += n;
+            int percent = (int) (this.read * 100 / this.length);
+            if (percent != this.lastPercent) {
+                this.lastPercent = percent;
+                this.onProgress.accept(percent);
+            }
+        }
+    }
 }
@@ -30,6 +30,7 @@ public class AlertGroupPanel extends AlertPanel<AlertGroup> {
         buttonPanel.setBorder(new EmptyBorder(0, 5, 8, 0));
 
         JButton alertDropDownButton = PanelUtils.createAlertDropDownButton(createdAlert -> {
+            createdAlert.setParent(this.alert);
             this.alert.getAlerts().add(createdAlert);
             alertManager.saveAlerts();
             this.rebuild();
@@ -1,5 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.ui.notifications.panels;
 
+import com.adamk33n3r.runelite.watchdog.SoundPriority;
 import com.adamk33n3r.runelite.watchdog.notifications.Sound;
 import com.adamk33n3r.runelite.watchdog.ui.Icons;
 import com.adamk33n3r.runelite.watchdog.ui.notifications.VolumeSlider;
@@ -37,6 +38,13 @@ public class SoundNotificationPanel extends NotificationPanel {
         volumeSlider.addChangeListener(e -> onChangeListener.run());
         this.settings.add(PanelUtils.createIconComponent(Icons.VOLUME, "The volume to playback sound", volumeSlider));
 
+        JComboBox<SoundPriority> prioritySelect = PanelUtils.createSelect(SoundPriority.values(), sound.getPriority(), (selected) -> {
+            sound.setPriority(selected);
+            onChangeListener.run();
+        });
+        prioritySelect.setToolTipText("The priority of the sound in the sound queue");
+        this.settings.add(prioritySelect);
+
         JSpinner repeatDuration = PanelUtils.createSpinner(sound.getRepeatDuration(), -1, 120, 1, val -> {
             sound.setRepeatDuration(val);
             onChangeListener.run();
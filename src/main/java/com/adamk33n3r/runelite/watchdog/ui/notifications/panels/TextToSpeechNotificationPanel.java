@@ -2,6 +2,7 @@ package com.adamk33n3r.runelite.watchdog.ui.notifications.panels;
 
 import com.adamk33n3r.runelite.watchdog.LengthLimitFilter;
 import com.adamk33n3r.runelite.watchdog.SimpleDocumentListener;
+import com.adamk33n3r.runelite.watchdog.SoundPriority;
 import com.adamk33n3r.runelite.watchdog.WatchdogPlugin;
 import com.adamk33n3r.runelite.watchdog.elevenlabs.ElevenLabs;
 import com.adamk33n3r.runelite.watchdog.elevenlabs.Voice;
@@ -127,5 +128,12 @@ public class TextToSpeechNotificationPanel extends NotificationPanel {
         volumeSlider.setBackground(ColorScheme.MEDIUM_GRAY_COLOR);
         volumeSlider.addChangeListener(e -> onChangeListener.run());
         this.settings.add(PanelUtils.createIconComponent(Icons.VOLUME, "The volume to playback speech", volumeSlider));
+
+        JComboBox<SoundPriority> prioritySelect = PanelUtils.createSelect(SoundPriority.values(), notification.getPriority(), (selected) -> {
+            notification.setPriority(selected);
+            onChangeListener.run();
+        });
+        prioritySelect.setToolTipText("The priority of the speech in the sound queue");
+        this.settings.add(prioritySelect);
     }
 }
@@ -69,8 +69,10 @@ public abstract class AlertPanel<T extends Alert> extends PluginPanel {
                 (btn, modifiers) -> {
                     ImportExportDialog importExportDialog = new ImportExportDialog(
                         SwingUtilities.getWindowAncestor(this),
-                        (json, append) -> {
-                            boolean result = this.alertManager.importAlerts(json, ((AlertGroup) alert).getAlerts(), append, true, WatchdogPlugin.getInstance().getConfig().overrideImportsWithDefaults());
+                        (parsed, append) -> {
+                            AlertGroup alertGroup = (AlertGroup) alert;
+                            boolean result = this.alertManager.applyImport(parsed, alertGroup.getAlerts(), append);
+                            alertGroup.getAlerts().forEach(subAlert -> subAlert.setParent(alertGroup));
                             this.rebuild();
                             return result;
                         }
@@ -1,6 +1,5 @@
 package com.adamk33n3r.runelite.watchdog.ui.panels;
 
-import com.adamk33n3r.runelite.watchdog.Util;
 import com.adamk33n3r.runelite.watchdog.alerts.Alert;
 import com.adamk33n3r.runelite.watchdog.notifications.MessageNotification;
 
@@ -33,7 +32,7 @@ public class HistoryEntryPanel extends JPanel {
             .filter(notification -> notification instanceof MessageNotification)
             .map(notification -> (MessageNotification) notification)
             .forEach(notification -> {
-                String message = Util.processTriggerValues(notification.getMessage(), triggerValues);
+                String message = notification.processMessage(triggerValues);
                 JTextArea wrappingTextArea = new JTextArea(notification.getType().getName() + ": " + message);
                 wrappingTextArea.setLineWrap(true);
                 wrappingTextArea.setWrapStyleWord(true);
@@ -1,5 +1,6 @@
 package com.adamk33n3r.runelite.watchdog.ui.panels;
 
+import com.adamk33n3r.runelite.watchdog.CompiledPattern;
 import com.adamk33n3r.runelite.watchdog.Displayable;
 import com.adamk33n3r.runelite.watchdog.TriggerType;
 import com.adamk33n3r.runelite.watchdog.Util;
@@ -30,7 +31,6 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 
@@ -277,7 +277,7 @@ public class PanelUtils {
 
     public static boolean isPatternValid(Component parent, String pattern, boolean isRegex) {
         try {
-            Pattern.compile(isRegex ? pattern : Util.createRegexFromGlob(pattern));
+            CompiledPattern.compile(pattern, isRegex);
             return true;
         } catch (PatternSyntaxException ex) {
             JLabel errorLabel = new JLabel("<html>" + ex.getMessage().replaceAll("\n", "<br/>").replaceAll(" ", "&nbsp;") + "</html>");
@@ -287,6 +287,23 @@ public class PanelUtils {
         }
     }
 
+    /**
+     * Asks before accepting a regex that could take a very long time to match
+     */
+    public static boolean isPatternSafe(Component parent, String pattern, boolean isRegex) {
+        if (!isRegex || !Util.hasNestedQuantifier(pattern)) {
+            return true;
+        }
+
+        int result = JOptionPane.showConfirmDialog(
+            parent,
+            "The regex " + pattern + " repeats a group that already repeats.\nThis can take a very long time to match some messages and may be disabled if it does.\nUse it anyway?",
+            "Slow regex",
+            JOptionPane.YES_NO_OPTION,
+            JOptionPane.WARNING_MESSAGE);
+        return result == JOptionPane.YES_OPTION;
+    }
+
     public static JButton createAlertDropDownButton(Consumer<Alert> onCreate) {
         ActionListener actionListener = e -> {
             JMenuItem menuItem = (JMenuItem) e.getSource();
@@ -1,13 +1,16 @@
 package com.adamk33n3r.runelite.watchdog;
 
 import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.alerts.AlertGroup;
 import com.adamk33n3r.runelite.watchdog.alerts.ChatAlert;
 import com.adamk33n3r.runelite.watchdog.notifications.Notification;
 import com.adamk33n3r.runelite.watchdog.notifications.Overlay;
 
 import net.runelite.api.Client;
+import net.runelite.api.Skill;
 import net.runelite.client.account.SessionManager;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.ConfigProfile;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.ui.ClientUI;
@@ -15,6 +18,7 @@ import net.runelite.client.ui.MultiplexingPluginPanel;
 import net.runelite.http.api.RuneLiteAPI;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.testing.fieldbinder.Bind;
@@ -23,6 +27,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.internal.util.reflection.FieldSetter;
@@ -31,7 +37,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AlertManagerTest {
@@ -102,33 +113,173 @@ public class AlertManagerTest {
 
         WatchdogPlugin watchdogPlugin = new WatchdogPlugin();
         FieldSetter.setField(watchdogPlugin, Plugin.class.getDeclaredField("injector"), injector);
+
+        ConfigProfile profile = Mockito.mock(ConfigProfile.class);
+        Mockito.lenient().when(profile.getId()).thenReturn(1L);
+        Mockito.lenient().when(this.configManager.getProfile()).thenReturn(profile);
     }
 
     @Test
-    public void test_import() {
+    public void test_import() throws Exception {
         String json = "[{\"type\":\"ChatAlert\",\"message\":\"*is ready to harvest*\",\"regexEnabled\":false,\"enabled\":true,\"name\":\"Ready to Harvest\",\"debounceTime\":500,\"notifications\":[{\"type\":\"TrayNotification\",\"message\":\"Time to harvest your crops!\",\"fireWhenFocused\":true},{\"type\":\"Sound\",\"path\":\"C:\\\\Users\\\\adamg\\\\Music\\\\airplane_seatbelt.mp3\",\"gain\":10,\"fireWhenFocused\":true},{\"type\":\"TextToSpeech\",\"gain\":5,\"rate\":1,\"voice\":\"GEORGE\",\"source\":\"LEGACY\",\"message\":\"\",\"fireWhenFocused\":true},{\"type\":\"Overhead\",\"displayTime\":3,\"message\":\"\",\"fireWhenFocused\":true}]},{\"type\":\"NotificationFiredAlert\",\"message\":\"You are now out of combat!\",\"regexEnabled\":false,\"enabled\":true,\"name\":\"Out of Combat\",\"debounceTime\":0,\"notifications\":[{\"type\":\"ScreenFlash\",\"color\":\"#46FF0000\",\"flashMode\":\"FLASH\",\"flashDuration\":0,\"fireWhenFocused\":true}]},{\"type\":\"SpawnedAlert\",\"spawnedDespawned\":\"SPAWNED\",\"spawnedType\":\"ITEM\",\"spawnedName\":\"Bones\",\"regexEnabled\":false,\"enabled\":false,\"name\":\"Bones Spawned\",\"debounceTime\":0,\"notifications\":[{\"type\":\"SoundEffect\",\"soundID\":3925,\"gain\":10,\"fireWhenFocused\":true},{\"type\":\"ScreenFlash\",\"color\":\"#46FF0000\",\"flashMode\":\"FLASH\",\"flashDuration\":0,\"fireWhenFocused\":true}]},{\"type\":\"SpawnedAlert\",\"spawnedDespawned\":\"SPAWNED\",\"spawnedType\":\"NPC\",\"spawnedName\":\"Gee\",\"regexEnabled\":false,\"enabled\":false,\"name\":\"NPC Spawn\",\"debounceTime\":0,\"notifications\":[{\"type\":\"Overhead\",\"displayTime\":3,\"message\":\"The dude is here\",\"fireWhenFocused\":true},{\"type\":\"TextToSpeech\",\"gain\":10,\"rate\":1,\"voice\":\"GEORGE\",\"source\":\"LEGACY\",\"message\":\"\",\"fireWhenFocused\":true}]},{\"type\":\"SpawnedAlert\",\"spawnedDespawned\":\"SPAWNED\",\"spawnedType\":\"GAME_OBJECT\",\"spawnedName\":\"Tree\",\"regexEnabled\":false,\"enabled\":false,\"name\":\"New Spawned Alert\",\"debounceTime\":0,\"notifications\":[{\"type\":\"Overhead\",\"displayTime\":3,\"message\":\"CHOP THE TREE\",\"fireWhenFocused\":true},{\"type\":\"SoundEffect\",\"soundID\":3924,\"gain\":10,\"fireWhenFocused\":true}]},{\"type\":\"ChatAlert\",\"message\":\"\",\"regexEnabled\":false,\"enabled\":true,\"name\":\"test 11labs lag\",\"debounceTime\":0,\"notifications\":[{\"type\":\"TextToSpeech\",\"gain\":10,\"rate\":1,\"voice\":\"GEORGE\",\"source\":\"LEGACY\",\"message\":\"this is a test\",\"fireWhenFocused\":true}]}]";
         Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS))
             .thenReturn(json);
         Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION))
             .thenReturn(this.pluginVersion);
         Assert.assertEquals(alertManager.getAlerts().size(), 0);
-        alertManager.loadAlerts();
+        this.loadAlerts();
         Assert.assertEquals(alertManager.getAlerts().size(), 6);
     }
 
     @Test
-    public void test_upgrade() {
+    public void test_snapshot() throws Exception {
+        String json = "[{\"type\":\"ChatAlert\",\"message\":\"Enabled\",\"enabled\":true,\"name\":\"Enabled\",\"notifications\":[]},{\"type\":\"ChatAlert\",\"message\":\"Disabled\",\"enabled\":false,\"name\":\"Disabled\",\"notifications\":[]},{\"type\":\"AlertGroup\",\"enabled\":true,\"name\":\"Group\",\"notifications\":[],\"alerts\":[{\"type\":\"XPDropAlert\",\"skill\":\"ATTACK\",\"gainedAmount\":1,\"enabled\":true,\"name\":\"Nested\",\"notifications\":[]}]}]";
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS))
+            .thenReturn(json);
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION))
+            .thenReturn(this.pluginVersion);
+        this.loadAlerts();
+
+        AlertSnapshot snapshot = alertManager.getSnapshot();
+        Assert.assertEquals(1, snapshot.getAlerts(TriggerType.GAME_MESSAGE).length);
+        Assert.assertEquals("Enabled", snapshot.getAlerts(TriggerType.GAME_MESSAGE)[0].getName());
+        Assert.assertEquals(1, snapshot.getAlerts(TriggerType.XP_DROP).length);
+        Assert.assertEquals(0, snapshot.getAlerts(TriggerType.SPAWNED_OBJECT).length);
+        Assert.assertEquals(1, snapshot.getXPDropAlerts(Skill.ATTACK).length);
+        Assert.assertEquals(0, snapshot.getXPDropAlerts(Skill.DEFENCE).length);
+        Assert.assertEquals(0, snapshot.getStatChangedAlerts(Skill.ATTACK).length);
+        Assert.assertTrue(snapshot.getListIndex(snapshot.getAlerts(TriggerType.GAME_MESSAGE)[0]) < snapshot.getListIndex(snapshot.getAlerts(TriggerType.XP_DROP)[0]));
+        Assert.assertTrue(snapshot.contains(alertManager.getAlerts().get(0)));
+        Assert.assertFalse(snapshot.contains(alertManager.getAlerts().get(1)));
+
+        alertManager.getAlerts().get(1).setEnabled(true);
+        Assert.assertSame(snapshot, alertManager.getSnapshot());
+        alertManager.saveAlerts();
+        Assert.assertEquals(2, alertManager.getSnapshot().getAlerts(TriggerType.GAME_MESSAGE).length);
+        Assert.assertTrue(alertManager.getSnapshot().getGeneration() > snapshot.getGeneration());
+    }
+
+    @Test
+    public void test_streaming_import() {
+        List<Alert> alerts = new ArrayList<>();
+        Assert.assertTrue(alertManager.importAlerts("{\"type\":\"ChatAlert\",\"message\":\"One\",\"enabled\":true,\"name\":\"One\",\"notifications\":[]}", alerts, false, false, false));
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertTrue(alertManager.importAlerts("[{\"type\":\"ChatAlert\",\"message\":\"Two\",\"enabled\":true,\"name\":\"Two\",\"notifications\":[]}]", alerts, true, false, false));
+        Assert.assertEquals(2, alerts.size());
+        Assert.assertEquals("Two", alerts.get(1).getName());
+
+        // A broken import leaves the existing alerts alone
+        Assert.assertThrows(JsonSyntaxException.class, () -> alertManager.importAlerts("[{\"type\":\"ChatAlert\",\"name\":\"Three\"},{", alerts, false, false, false));
+        Assert.assertEquals(2, alerts.size());
+    }
+
+    @Test
+    public void test_group_parents() {
+        Assert.assertTrue(alertManager.importAlerts("{\"type\":\"AlertGroup\",\"enabled\":true,\"name\":\"Group\",\"alerts\":[{\"type\":\"ChatAlert\",\"message\":\"One\",\"enabled\":true,\"name\":\"One\",\"notifications\":[]}]}", alertManager.getAlerts(), false, false, false));
+        AlertGroup group = (AlertGroup) alertManager.getAlerts().get(0);
+        Alert child = group.getAlerts().get(0);
+        Assert.assertSame(group, child.getParent());
+
+        alertManager.removeAlert(child);
+        Assert.assertTrue(group.getAlerts().isEmpty());
+        Assert.assertNull(child.getParent());
+        Assert.assertEquals(1, alertManager.getAlerts().size());
+    }
+
+    @Test
+    public void test_upgrade() throws Exception {
         String json = "[{\"type\":\"ChatAlert\",\"message\":\"\",\"regexEnabled\":false,\"enabled\":true,\"name\":\"Upgrade Test\",\"debounceTime\":0,\"notifications\":[{\"type\":\"Overlay\",\"color\":\"#46FF0000\",\"sticky\":false,\"timeToLive\":5,\"imagePath\":\"\",\"message\":\"Overlay notification\",\"fireWhenFocused\":true}]}]";
         Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS))
             .thenReturn(json);
         Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION))
             .thenReturn("2.12.0");
-        alertManager.loadAlerts();
+        this.loadAlerts();
         Alert alert = alertManager.getAlerts().get(0);
         Assert.assertTrue(alert instanceof ChatAlert);
         Notification notification = alert.getNotifications().get(0);
         Assert.assertTrue(notification instanceof Overlay);
         Assert.assertNotNull(((Overlay) notification).getTextColor());
 
+        // The new version is only stored once the upgraded alerts are, and after them
+        Mockito.verify(this.configManager, Mockito.never()).setConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.eq(WatchdogConfig.PLUGIN_VERSION), Mockito.anyString());
+        alertManager.flushAlerts();
+        InOrder inOrder = Mockito.inOrder(this.configManager);
+        inOrder.verify(this.configManager).setConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.eq(WatchdogConfig.ALERT_SHARDS), Mockito.anyString());
+        inOrder.verify(this.configManager).setConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION, this.pluginVersion);
+    }
+
+    @Test
+    public void test_cancelled_load() throws Exception {
+        String json = "[{\"type\":\"ChatAlert\",\"message\":\"One\",\"enabled\":true,\"name\":\"One\",\"notifications\":[]}]";
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS))
+            .thenReturn(json);
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION))
+            .thenReturn("2.12.0");
+        this.alertManager.loadAlerts(() -> true, Assert::fail);
+        // Anything queued on the EDT before this has run by the time it returns
+        SwingUtilities.invokeAndWait(() -> {});
+
+        Assert.assertTrue(alertManager.getAlerts().isEmpty());
+        alertManager.flushAlerts();
+        Mockito.verify(this.configManager, Mockito.never()).setConfiguration(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void test_sharded_save() throws Exception {
+        String json = "[{\"type\":\"ChatAlert\",\"message\":\"One\",\"enabled\":true,\"name\":\"One\",\"notifications\":[]},{\"type\":\"ChatAlert\",\"message\":\"Two\",\"enabled\":true,\"name\":\"Two\",\"notifications\":[]}]";
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS))
+            .thenReturn(json);
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION))
+            .thenReturn(this.pluginVersion);
+        this.loadAlerts();
+        alertManager.flushAlerts();
+
+        // Migrated from the legacy key
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> values = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(this.configManager, Mockito.times(3)).setConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), keys.capture(), values.capture());
+        Mockito.verify(this.configManager).unsetConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS);
+        for (int i = 0; i < keys.getAllValues().size(); i++) {
+            Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, keys.getAllValues().get(i)))
+                .thenReturn(values.getAllValues().get(i));
+        }
+
+        // Only the changed alert is written again
+        this.loadAlerts();
+        Assert.assertEquals(2, alertManager.getAlerts().size());
+        Assert.assertEquals("Two", alertManager.getAlerts().get(1).getName());
+        alertManager.getAlerts().get(1).setName("Changed");
+        alertManager.saveAlerts();
+        alertManager.flushAlerts();
+        Mockito.verify(this.configManager, Mockito.times(5)).setConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(this.configManager, Mockito.times(2)).unsetConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.anyString());
+    }
+
+    @Test
+    public void test_profile_changed_before_save() throws Exception {
+        String json = "[{\"type\":\"ChatAlert\",\"message\":\"One\",\"enabled\":true,\"name\":\"One\",\"notifications\":[]}]";
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.ALERTS))
+            .thenReturn(json);
+        Mockito.when(this.configManager.getConfiguration(WatchdogConfig.CONFIG_GROUP_NAME, WatchdogConfig.PLUGIN_VERSION))
+            .thenReturn(this.pluginVersion);
+        this.loadAlerts();
+        alertManager.flushAlerts();
+        Mockito.verify(this.configManager, Mockito.times(2)).setConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.anyString(), Mockito.anyString());
+
+        // Saved in full to the new profile, which has none of the shards that were written to the old one
+        ConfigProfile newProfile = Mockito.mock(ConfigProfile.class);
+        Mockito.when(newProfile.getId()).thenReturn(2L);
+        Mockito.when(this.configManager.getProfile()).thenReturn(newProfile);
+        alertManager.getAlerts().get(0).setEnabled(false);
+        alertManager.saveAlerts();
+        alertManager.flushAlerts();
+        Mockito.verify(this.configManager, Mockito.times(4)).setConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.anyString(), Mockito.anyString());
+        Mockito.verify(this.configManager, Mockito.times(1)).unsetConfiguration(Mockito.eq(WatchdogConfig.CONFIG_GROUP_NAME), Mockito.anyString());
+    }
+
+    private void loadAlerts() throws InterruptedException {
+        CountDownLatch loaded = new CountDownLatch(1);
+        this.alertManager.loadAlerts(() -> false, loaded::countDown);
+        Assert.assertTrue(loaded.await(5, TimeUnit.SECONDS));
     }
 }
@@ -0,0 +1,62 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.alerts.ChatAlert;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+public class AlertPrefilterTest {
+    private static Alert chatAlert(String message, boolean regex) {
+        ChatAlert alert = new ChatAlert();
+        alert.setMessage(message);
+        alert.setRegexEnabled(regex);
+        return alert;
+    }
+
+    @Test
+    public void test_required_literal() {
+        Assert.assertEquals("is ready to harvest", GlobMatcher.requiredLiteral("*is ready to harvest*"));
+        Assert.assertEquals(" ready to harvest", GlobMatcher.requiredLiteral("Your {*} {are,is} ready to harvest"));
+        Assert.assertEquals("valuable drop: ", GlobMatcher.requiredLiteral("*Valuable drop: *\\(*coins\\)*"));
+        Assert.assertEquals("", GlobMatcher.requiredLiteral("*"));
+        Assert.assertEquals("", GlobMatcher.requiredLiteral("Jan [4-9]th"));
+        Assert.assertEquals("", GlobMatcher.requiredLiteral("\\d*"));
+    }
+
+    @Test
+    public void test_candidates() {
+        Alert[] alerts = {
+            chatAlert("*is ready to harvest*", false),
+            chatAlert("Your {*} {are,is} ready to harvest", false),
+            chatAlert("*bank pin*", false),
+            chatAlert("You have a funny feeling*", false),
+            chatAlert("*", false),
+            chatAlert("^You .*$", true),
+            chatAlert("*harvest*", false),
+        };
+        AlertPrefilter prefilter = new AlertPrefilter(alerts);
+
+        BitSet candidates = prefilter.findCandidates("Your TOMATOES ARE READY TO HARVEST");
+        Assert.assertEquals("{1, 4, 5, 6}", candidates.toString());
+
+        candidates = prefilter.findCandidates("Your herbs is ready to harvest");
+        Assert.assertEquals("{0, 1, 4, 5, 6}", candidates.toString());
+
+        candidates = prefilter.findCandidates("Please enter your Bank PIN");
+        Assert.assertEquals("{2, 4, 5}", candidates.toString());
+
+        // Every alert that matches has to be a candidate
+        String[] inputs = {"You have a funny feeling like you're being followed.", "harvest", "", "bank pin"};
+        for (String input : inputs) {
+            candidates = prefilter.findCandidates(input);
+            for (int i = 0; i < alerts.length; i++) {
+                if (((ChatAlert) alerts[i]).getCompiledPattern().match(input) != null) {
+                    Assert.assertTrue(input + " should have " + i, candidates.get(i));
+                }
+            }
+        }
+    }
+}
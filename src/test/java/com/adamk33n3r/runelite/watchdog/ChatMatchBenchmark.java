@@ -0,0 +1,86 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.alerts.ChatAlert;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Compares chat line throughput when matching every alert against matching only the prefilter's candidates.
+ * Run the main method; it isn't part of the test suite.
+ */
+public class ChatMatchBenchmark {
+    private static final String[] WORDS = {
+        "the", "you", "your", "ready", "harvest", "bank", "pin", "drop", "coins", "tree", "rocks", "goblin",
+        "selling", "buying", "world", "trade", "lol", "gz", "level", "attack", "strength", "bones", "rune", "dragon",
+    };
+    private static final int LINES = 20_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        String[] lines = new String[LINES];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = sentence(random, 4 + random.nextInt(10));
+        }
+
+        System.out.printf("%8s %20s %20s%n", "alerts", "all (lines/s)", "prefilter (lines/s)");
+        for (int alertCount : new int[] { 10, 50, 100, 300, 1000 }) {
+            Alert[] alerts = new Alert[alertCount];
+            for (int i = 0; i < alerts.length; i++) {
+                ChatAlert alert = new ChatAlert();
+                alert.setMessage("*" + sentence(random, 2) + " " + i + "*");
+                alerts[i] = alert;
+            }
+            AlertPrefilter prefilter = new AlertPrefilter(alerts);
+
+            double all = 0;
+            double filtered = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                all = measure(lines, () -> {
+                    int matches = 0;
+                    for (String line : lines) {
+                        for (Alert alert : alerts) {
+                            if (((ChatAlert) alert).getCompiledPattern().match(line) != null) matches++;
+                        }
+                    }
+                    return matches;
+                });
+                filtered = measure(lines, () -> {
+                    int matches = 0;
+                    for (String line : lines) {
+                        BitSet candidates = prefilter.findCandidates(line);
+                        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                            if (((ChatAlert) alerts[i]).getCompiledPattern().match(line) != null) matches++;
+                        }
+                    }
+                    return matches;
+                });
+            }
+            System.out.printf("%8d %20.0f %20.0f%n", alertCount, all, filtered);
+        }
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private interface Run {
+        int run();
+    }
+
+    private static double measure(String[] lines, Run run) {
+        long start = System.nanoTime();
+        int matches = run.run();
+        long elapsed = System.nanoTime() - start;
+        // Use the result so the loop can't be optimized away
+        if (matches < 0) throw new IllegalStateException();
+        return lines.length / (elapsed / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,39 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.ChatAlert;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class DebounceStoreTest {
+    @Test
+    public void test_debounce() {
+        DebounceStore store = new DebounceStore();
+        ChatAlert alert = new ChatAlert();
+        alert.setDebounceTime(500);
+
+        long start = 1_000;
+        Assert.assertTrue(store.tryFire(alert, start));
+        Assert.assertFalse(store.tryFire(alert, start + TimeUnit.MILLISECONDS.toNanos(499)));
+        Assert.assertTrue(store.tryFire(alert, start + TimeUnit.MILLISECONDS.toNanos(500)));
+
+        ChatAlert noDebounce = new ChatAlert();
+        Assert.assertTrue(store.tryFire(noDebounce, start));
+        Assert.assertTrue(store.tryFire(noDebounce, start));
+    }
+
+    @Test
+    public void test_retain() {
+        DebounceStore store = new DebounceStore();
+        ChatAlert kept = new ChatAlert();
+        ChatAlert removed = new ChatAlert();
+        store.tryFire(kept);
+        store.tryFire(removed);
+
+        store.retain(new AlertSnapshot(1, Collections.singletonList(kept)));
+        Assert.assertEquals(1, store.size());
+    }
+}
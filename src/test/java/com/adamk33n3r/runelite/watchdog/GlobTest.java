@@ -6,6 +6,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class GlobTest {
@@ -120,4 +122,47 @@ public class GlobTest {
         assertEquals(".*drop.*", regex);
         assertTrue("Valuable drop: (5,001 coins)".matches(regex));
     }
+
+    @Test
+    public void simple_globs_are_classified() throws Exception {
+        assertEquals(GlobMatcher.Kind.EXACT, GlobMatcher.compile("Bones").getKind());
+        assertEquals(GlobMatcher.Kind.PREFIX, GlobMatcher.compile("Rune*").getKind());
+        assertEquals(GlobMatcher.Kind.SUFFIX, GlobMatcher.compile("*bones").getKind());
+        assertEquals(GlobMatcher.Kind.CONTAINS, GlobMatcher.compile("*bank pin*").getKind());
+        assertEquals(GlobMatcher.Kind.CONTAINS, GlobMatcher.compile("**").getKind());
+        assertEquals(GlobMatcher.Kind.SEGMENTS, GlobMatcher.compile("gl*b").getKind());
+        assertEquals(GlobMatcher.Kind.SEGMENTS, GlobMatcher.compile("*Valuable drop: *coins*").getKind());
+    }
+
+    @Test
+    public void classes_groups_and_question_marks_need_regex() throws Exception {
+        assertNull(GlobMatcher.compile("Jan [4-9]th"));
+        assertNull(GlobMatcher.compile("Your {*} {are,is} ready to harvest"));
+        assertNull(GlobMatcher.compile("gl?b"));
+        assertNull(GlobMatcher.compile("gl\\db"));
+        assertNull(GlobMatcher.compile("trailing\\"));
+        assertNotNull(GlobMatcher.compile("gl\\?b"));
+    }
+
+    @Test
+    public void simple_globs_match_the_same_as_regex() throws Exception {
+        String[] globs = {
+            "gl*b", "gl\\*b", "gl\\?b", "gl\\[-o\\]b", "gl*.()+|^$@%b", "gl\\\\b", "\\Qglob\\E", "\\{glob\\}",
+            "*drop*", "*is ready to harvest*", "Bones", "Rune*", "*bank pin*", "*", "", "a*a", "*a*a*", "ab*ba", "*\u00e9*",
+        };
+        String[] inputs = {
+            "glob", "GLOB", "gl*b", "gl?b", "gl[-o]b", "gl-.()+|^$@%b", "gl\\b", "\\Qglob\\E", "{glob}", "gb",
+            "Valuable drop: (5,001 coins)", "Your tomatoes are ready to harvest", "bones", "Bones", "BONES", "Bones ",
+            "Rune platebody", "rune", "Run", "Enter your BANK PIN", "", "a", "aa", "aaa", "aba", "abba", "aBbA",
+            "two\nlines drop", "line\rdrop", "\u00c9", "\u00e9", "x\u00e9x",
+        };
+        for (String glob : globs) {
+            GlobMatcher globMatcher = GlobMatcher.compile(glob);
+            assertNotNull(glob, globMatcher);
+            Pattern pattern = Pattern.compile(Util.createRegexFromGlob(glob), Pattern.CASE_INSENSITIVE);
+            for (String input : inputs) {
+                assertEquals(glob + " against " + input, pattern.matcher(input).matches(), globMatcher.matches(input));
+            }
+        }
+    }
 }
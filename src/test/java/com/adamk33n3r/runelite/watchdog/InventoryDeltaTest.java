@@ -0,0 +1,61 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import net.runelite.api.Item;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class InventoryDeltaTest {
+    private static int[] changedIds(InventoryDelta delta) {
+        int[] ids = new int[delta.getChangedCount()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = delta.getChangedId(i);
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Test
+    public void test_only_changed_items() {
+        InventoryDelta delta = new InventoryDelta();
+        delta.update(new Item[] { new Item(385, 1), new Item(385, 1), new Item(995, 1000), new Item(-1, 0) });
+        Assert.assertArrayEquals(new int[] { 385, 995 }, changedIds(delta));
+        Assert.assertEquals(2, delta.getQuantity(385));
+        Assert.assertEquals(3, delta.getOccupiedSlots());
+
+        // Moving an item to another slot doesn't change anything
+        delta.update(new Item[] { new Item(385, 1), new Item(-1, 0), new Item(995, 1000), new Item(385, 1) });
+        Assert.assertArrayEquals(new int[0], changedIds(delta));
+
+        delta.update(new Item[] { new Item(385, 1), new Item(-1, 0), new Item(995, 1200), new Item(-1, 0) });
+        Assert.assertArrayEquals(new int[] { 385, 995 }, changedIds(delta));
+        Assert.assertEquals(1, delta.getQuantity(385));
+        Assert.assertEquals(1200, delta.getQuantity(995));
+
+        delta.update(new Item[] { new Item(-1, 0), new Item(-1, 0), new Item(995, 1200), new Item(-1, 0) });
+        Assert.assertArrayEquals(new int[] { 385 }, changedIds(delta));
+        Assert.assertEquals(0, delta.getQuantity(385));
+        Assert.assertEquals(1, delta.getOccupiedSlots());
+    }
+
+    @Test
+    public void test_reset() {
+        InventoryDelta delta = new InventoryDelta();
+        delta.update(new Item[] { new Item(385, 2), new Item(995, 1000) });
+
+        // Logged back in with the same inventory, so everything is new again instead of unchanged
+        delta.reset();
+        Assert.assertEquals(0, delta.getQuantity(385));
+        Assert.assertEquals(0, delta.getOccupiedSlots());
+        delta.update(new Item[] { new Item(385, 2), new Item(995, 1000) });
+        Assert.assertArrayEquals(new int[] { 385, 995 }, changedIds(delta));
+
+        // An item that was held before the reset isn't reported as gone
+        delta.reset();
+        delta.update(new Item[] { new Item(995, 1000) });
+        Assert.assertArrayEquals(new int[] { 995 }, changedIds(delta));
+        Assert.assertEquals(0, delta.getQuantity(385));
+    }
+}
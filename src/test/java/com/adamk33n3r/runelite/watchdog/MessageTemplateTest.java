@@ -0,0 +1,33 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MessageTemplateTest {
+    @Test
+    public void test_render() {
+        String[] values = { "Tomatoes", "3" };
+        Assert.assertEquals("3 Tomatoes are ready", MessageTemplate.parse("$2 $1 are ready").render(values));
+        Assert.assertEquals("Tomatoes$", MessageTemplate.parse("$1$").render(values));
+        // Placeholders without a trigger value are left alone
+        Assert.assertEquals("Tomatoes $3 $0", MessageTemplate.parse("$1 $3 $0").render(values));
+        // Only single digits are placeholders
+        Assert.assertEquals("Tomatoes0", MessageTemplate.parse("$10").render(values));
+    }
+
+    @Test
+    public void test_values_are_literal() {
+        String[] values = { "$2 \\1", "x" };
+        Assert.assertEquals("cost: $2 \\1", MessageTemplate.parse("cost: $1").render(values));
+        // Optional groups that didn't match
+        Assert.assertEquals("-", MessageTemplate.parse("-$1").render(new String[] { null }));
+    }
+
+    @Test
+    public void test_static_message() {
+        String message = "Time to harvest your crops!";
+        MessageTemplate template = MessageTemplate.parse(message);
+        Assert.assertSame(message, template.render(new String[] { "a" }));
+        Assert.assertTrue(template.isFor(message));
+    }
+}
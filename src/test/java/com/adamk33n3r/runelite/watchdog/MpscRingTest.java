@@ -0,0 +1,65 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingTest {
+    @Test
+    public void test_bounded_fifo() {
+        MpscRing<Integer> ring = new MpscRing<>(3);
+        Assert.assertEquals(4, ring.capacity());
+        Assert.assertNull(ring.poll());
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(ring.offer(i));
+        }
+        Assert.assertFalse(ring.offer(4));
+
+        // Wraps around once there is room again
+        for (int round = 0; round < 3; round++) {
+            Assert.assertEquals(Integer.valueOf(round), ring.poll());
+            Assert.assertTrue(ring.offer(4 + round));
+        }
+        for (int i = 3; i < 7; i++) {
+            Assert.assertEquals(Integer.valueOf(i), ring.poll());
+        }
+        Assert.assertNull(ring.poll());
+    }
+
+    @Test
+    public void test_producer_order() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRing<int[]> ring = new MpscRing<>(64);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int[] element = { producer, i };
+                    while (!ring.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        // Each producer's elements have to come out in the order it offered them
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            int[] element = ring.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            Assert.assertEquals(next[element[0]]++, element[1]);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(ring.poll());
+    }
+}
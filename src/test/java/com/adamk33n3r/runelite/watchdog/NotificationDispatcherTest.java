@@ -0,0 +1,98 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class NotificationDispatcherTest {
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher();
+
+    @Before
+    public void before() {
+        this.dispatcher.startUp();
+    }
+
+    @After
+    public void after() {
+        this.dispatcher.shutDown();
+    }
+
+    @Test
+    public void test_lanes() throws InterruptedException {
+        for (NotificationDispatcher.Lane lane : NotificationDispatcher.Lane.values()) {
+            AtomicReference<String> threadName = new AtomicReference<>();
+            CountDownLatch ran = new CountDownLatch(1);
+            this.dispatcher.dispatch(lane, () -> {
+                threadName.set(Thread.currentThread().getName());
+                ran.countDown();
+            });
+
+            Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+            Assert.assertTrue(threadName.get(), threadName.get().startsWith("watchdog-notification-" + lane.getName() + "-"));
+        }
+    }
+
+    @Test
+    public void test_full_lane_drops_oldest() throws InterruptedException {
+        NotificationDispatcher.Lane lane = NotificationDispatcher.Lane.BLOCKING;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(lane.getThreads());
+        for (int i = 0; i < lane.getThreads(); i++) {
+            this.dispatcher.dispatch(lane, () -> {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+        }
+        Assert.assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+        AtomicBoolean oldestRan = new AtomicBoolean(false);
+        this.dispatcher.dispatch(lane, () -> oldestRan.set(true));
+        for (int i = 1; i < lane.getQueueSize(); i++) {
+            this.dispatcher.dispatch(lane, () -> {});
+        }
+        Assert.assertEquals(lane.getQueueSize(), this.dispatcher.getQueueDepth(lane));
+        Assert.assertEquals(0, this.dispatcher.getDroppedCount(lane));
+
+        CountDownLatch newestRan = new CountDownLatch(1);
+        this.dispatcher.dispatch(lane, newestRan::countDown);
+        Assert.assertEquals(1, this.dispatcher.getDroppedCount(lane));
+
+        release.countDown();
+        Assert.assertTrue(newestRan.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(oldestRan.get());
+    }
+
+    @Test
+    public void test_shut_down() throws InterruptedException {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        CountDownLatch ran = new CountDownLatch(1);
+        this.dispatcher.dispatch(NotificationDispatcher.Lane.FAST, () -> {
+            worker.set(Thread.currentThread());
+            ran.countDown();
+        });
+        Assert.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        ScheduledExecutorService scheduler = this.dispatcher.getScheduler();
+
+        this.dispatcher.shutDown();
+        Assert.assertNull(this.dispatcher.getScheduler());
+        Assert.assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        worker.get().join(5000);
+        Assert.assertFalse(worker.get().isAlive());
+
+        // Dropped instead of run once shut down
+        AtomicBoolean ranAfter = new AtomicBoolean(false);
+        this.dispatcher.dispatch(NotificationDispatcher.Lane.FAST, () -> ranAfter.set(true));
+        Assert.assertEquals(0, this.dispatcher.getQueueDepth(NotificationDispatcher.Lane.FAST));
+        Assert.assertFalse(ranAfter.get());
+    }
+}
@@ -0,0 +1,37 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RegexBudgetTest {
+    @Test
+    public void test_nested_quantifiers() {
+        Assert.assertTrue(Util.hasNestedQuantifier("(.*a)*b"));
+        Assert.assertTrue(Util.hasNestedQuantifier("(a+)+"));
+        Assert.assertTrue(Util.hasNestedQuantifier("((ab)*)+"));
+        Assert.assertTrue(Util.hasNestedQuantifier("(?:\\d+,)*x"));
+        Assert.assertTrue(Util.hasNestedQuantifier("(a*){2,}"));
+
+        Assert.assertFalse(Util.hasNestedQuantifier("(ab)*"));
+        Assert.assertFalse(Util.hasNestedQuantifier("^You (.*) (\\d+)$"));
+        Assert.assertFalse(Util.hasNestedQuantifier("[(*)]+"));
+        Assert.assertFalse(Util.hasNestedQuantifier("\\(a+\\)+"));
+        Assert.assertFalse(Util.hasNestedQuantifier("(a{1,3})+"));
+        Assert.assertFalse(Util.hasNestedQuantifier("\\Q(a+)+\\E"));
+        Assert.assertFalse(Util.hasNestedQuantifier("(a+)?"));
+    }
+
+    @Test
+    public void test_budget() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 22; i++) {
+            input.append("a,");
+        }
+        CompiledPattern slow = CompiledPattern.compile("(.*?,){11}P", true);
+        Assert.assertThrows(RegexBudgetExceededException.class, () -> slow.match(input.toString(), 100_000));
+
+        CompiledPattern fine = CompiledPattern.compile("^You get (\\d+) (.*)\\.$", true);
+        Assert.assertArrayEquals(new String[] { "5", "coins" }, fine.match("You get 5 coins.", 100_000));
+        Assert.assertNull(fine.match("You lose 5 coins.", 100_000));
+    }
+}
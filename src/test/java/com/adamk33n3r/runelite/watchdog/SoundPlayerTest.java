@@ -0,0 +1,183 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import com.adamk33n3r.runelite.watchdog.alerts.Alert;
+import com.adamk33n3r.runelite.watchdog.audio.AudioLineProvider;
+
+import net.runelite.api.Client;
+import net.runelite.client.ui.ClientUI;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SoundPlayerTest {
+    // The old player only looked at the queue every 100ms
+    private static final long MAX_START_LATENCY_MILLIS = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    Client client;
+    @Mock
+    ClientUI clientUI;
+    @Mock
+    WatchdogConfig config;
+    @Mock
+    NotificationDispatcher notificationDispatcher;
+    @Mock
+    AudioLineProvider lineProvider;
+    @Mock
+    SourceDataLine line;
+
+    @InjectMocks
+    SoundPlayer soundPlayer;
+
+    // When each block was written to the line
+    private final List<Long> writes = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void before() throws Exception {
+        Mockito.when(this.lineProvider.open(Mockito.any(), Mockito.anyInt())).thenReturn(this.line);
+        Mockito.when(this.line.write(Mockito.any(), Mockito.anyInt(), Mockito.anyInt())).thenAnswer(invocation -> {
+            this.writes.add(System.nanoTime());
+            // Take as long as a real line would to play it
+            int length = invocation.getArgument(2);
+            Thread.sleep(length * 1000L / (44100 * 4));
+            return length;
+        });
+        this.soundPlayer.startUp();
+    }
+
+    @After
+    public void after() {
+        this.soundPlayer.shutDown();
+    }
+
+    @Test
+    public void test_start_latency() throws Exception {
+        Mockito.when(this.config.putSoundsIntoQueue()).thenReturn(true);
+        File sound = this.createWav("sound.wav", 0.1);
+        // Decode it ahead of time so that only the queue is timed
+        this.soundPlayer.getCache().get(sound);
+
+        long enqueued = System.nanoTime();
+        this.soundPlayer.play(sound, 5);
+        this.await("the sound to start", () -> !this.writes.isEmpty());
+        long latency = TimeUnit.NANOSECONDS.toMillis(this.writes.get(0) - enqueued);
+        Assert.assertTrue("Took " + latency + "ms to start", latency < MAX_START_LATENCY_MILLIS);
+        this.awaitPlayed(1);
+    }
+
+    @Test
+    public void test_queued_sounds_play_in_turn() throws Exception {
+        Mockito.when(this.config.putSoundsIntoQueue()).thenReturn(true);
+        File sound = this.createWav("sound.wav", 0.1);
+
+        this.soundPlayer.play(sound, 5);
+        this.soundPlayer.play(sound, 5);
+        this.awaitPlayed(2);
+        // 100ms each is about 9 blocks
+        Assert.assertTrue("Wrote " + this.writes.size() + " blocks", this.writes.size() >= 17);
+        // Only decoded the first time
+        Assert.assertEquals(1, this.soundPlayer.getCache().getMisses());
+        Assert.assertEquals(1, this.soundPlayer.getCache().getHits());
+    }
+
+    @Test
+    public void test_sounds_overlap() throws Exception {
+        Mockito.when(this.config.putSoundsIntoQueue()).thenReturn(false);
+        File sound = this.createWav("sound.wav", 0.1);
+
+        // Sounds that aren't queued are on the mixer as soon as play returns
+        this.soundPlayer.play(sound, 5);
+        this.soundPlayer.play(sound, 5);
+        this.await("the sounds to finish", () -> this.soundPlayer.getMixer().getVoiceCount() == 0);
+        Assert.assertTrue("Wrote " + this.writes.size() + " blocks", this.writes.size() <= 12);
+    }
+
+    @Test
+    public void test_critical_sound_preempts() throws Exception {
+        Mockito.when(this.config.putSoundsIntoQueue()).thenReturn(true);
+        File low = this.createWav("low.wav", 2);
+        File critical = this.createWav("critical.wav", 0.1);
+
+        this.soundPlayer.play(low, 5, 0, SoundPriority.LOW, null);
+        this.await("the low sound to start", () -> !this.writes.isEmpty());
+        long queued = System.nanoTime();
+        this.soundPlayer.play(critical, 5, 0, SoundPriority.CRITICAL, null);
+        this.awaitPlayed(2);
+        long took = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queued);
+        Assert.assertTrue("Took " + took + "ms to play the critical sound", took < 1000);
+        Assert.assertEquals(1, this.soundPlayer.getPreemptedCount());
+    }
+
+    @Test
+    public void test_duplicate_and_stale_sounds_are_skipped() throws Exception {
+        Mockito.when(this.config.putSoundsIntoQueue()).thenReturn(true);
+        Mockito.when(this.config.soundQueueMaxAge()).thenReturn(1);
+        Alert alert = Mockito.mock(Alert.class);
+        File slow = this.createWav("slow.wav", 1.5);
+        File sound = this.createWav("sound.wav", 0.1);
+
+        this.soundPlayer.play(slow, 5);
+        this.await("the slow sound to start", () -> !this.writes.isEmpty());
+        this.soundPlayer.play(sound, 5, 0, SoundPriority.NORMAL, alert);
+        this.soundPlayer.play(sound, 5, 0, SoundPriority.NORMAL, alert);
+        Assert.assertEquals(1, this.soundPlayer.getQueueLength());
+        Assert.assertEquals(1, this.soundPlayer.getDedupedCount());
+
+        // Waited behind the slow sound for longer than the max age
+        this.await("the waiting sound to be skipped", () -> this.soundPlayer.getExpiredCount() == 1);
+        Assert.assertEquals(0, this.soundPlayer.getQueueLength());
+        Assert.assertEquals(1, this.soundPlayer.getPlayedCount());
+    }
+
+    private void awaitPlayed(long count) throws InterruptedException {
+        this.await(count + " sounds to play", () -> this.soundPlayer.getPlayedCount() >= count);
+        Assert.assertEquals(count, this.soundPlayer.getPlayedCount());
+        Assert.assertEquals(0, this.soundPlayer.getMixer().getVoiceCount());
+    }
+
+    private void await(String what, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                Assert.fail("Timed out waiting for " + what);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private File createWav(String name, double seconds) throws IOException {
+        AudioFormat format = new AudioFormat(8000, 16, 1, true, false);
+        byte[] silence = new byte[(int) (seconds * 8000) * 2];
+        File file = this.folder.newFile(name);
+        try (AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(silence), format, silence.length / format.getFrameSize())) {
+            AudioSystem.write(stream, AudioFileFormat.Type.WAVE, file);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,69 @@
+package com.adamk33n3r.runelite.watchdog;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WriteBehindSaverTest {
+    @Test
+    public void test_write_behind() throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(1);
+        WriteBehindSaver saver = new WriteBehindSaver("test", written::countDown, 50, 1000);
+
+        saver.markDirty();
+        Assert.assertTrue(written.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_coalesce() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindSaver saver = new WriteBehindSaver("test", writes::incrementAndGet, 60_000, 60_000);
+
+        for (int i = 0; i < 10; i++) {
+            saver.markDirty();
+        }
+        Assert.assertEquals(0, writes.get());
+        saver.flush();
+        Assert.assertEquals(1, writes.get());
+    }
+
+    @Test
+    public void test_flush() {
+        AtomicInteger writes = new AtomicInteger();
+        WriteBehindSaver saver = new WriteBehindSaver("test", writes::incrementAndGet, 60_000, 60_000);
+
+        saver.flush();
+        Assert.assertEquals(0, writes.get());
+        saver.markDirty();
+        saver.flush();
+        Assert.assertEquals(1, writes.get());
+        saver.flush();
+        Assert.assertEquals(1, writes.get());
+
+        // Like a profile change with an edit still waiting, the edit is written before anything else is loaded
+        saver.markDirty();
+        saver.flush();
+        Assert.assertEquals(2, writes.get());
+    }
+
+    @Test
+    public void test_retry_after_failure() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch written = new CountDownLatch(1);
+        WriteBehindSaver saver = new WriteBehindSaver("test", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ArrayIndexOutOfBoundsException();
+            }
+            written.countDown();
+        }, 50, 1000);
+
+        saver.markDirty();
+        saver.flush();
+        Assert.assertEquals(1, attempts.get());
+        // Tried again in the background
+        Assert.assertTrue(written.await(5, TimeUnit.SECONDS));
+    }
+}